@@ -0,0 +1,47 @@
+package com.example.serverstatuschecker.aspect;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Renders method arguments and results for trace logs without walking large object graphs:
+ * collections and maps are summarized by size, everything else is cut at {@code maxLength}.
+ */
+final class ArgumentRenderer {
+
+    private ArgumentRenderer() {
+    }
+
+    static String renderAll(Object[] values, int maxLength) {
+        StringBuilder rendered = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                rendered.append(", ");
+            }
+            rendered.append(render(values[i], maxLength));
+        }
+        return rendered.append(']').toString();
+    }
+
+    static String render(Object value, int maxLength) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[length="
+                    + Array.getLength(value) + "]";
+        }
+        String text = String.valueOf(value);
+        if (text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength) + "...(" + text.length() + " chars)";
+    }
+}
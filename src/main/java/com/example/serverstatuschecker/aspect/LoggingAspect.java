@@ -1,30 +1,59 @@
 package com.example.serverstatuschecker.aspect;
 
+import com.example.serverstatuschecker.config.TracingProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces a sample of {@code ServerStatusService} calls with one log line each: the duration
+ * only, or, in FULL mode, size-capped arguments and result as well. Failures are logged on
+ * every call. The aspect is not registered unless {@code tracing.enabled=true}, so when off
+ * the service is not advised at all.
+ */
 @Aspect
 @Component
 @Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "tracing", name = "enabled", havingValue = "true")
 public class LoggingAspect {
 
-    @Before("execution(* com.example.serverstatuschecker.service.ServerStatusService.*(..))")
-    public void logBefore(JoinPoint joinPoint) {
-        log.info("Executing method: {} with arguments: {}", joinPoint.getSignature(), joinPoint.getArgs());
-    }
+    private final TracingProperties properties;
 
-    @AfterReturning(pointcut = "execution(* com.example.serverstatuschecker.service.ServerStatusService.*(..))", returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        log.info("Method: {} completed with result: {}", joinPoint.getSignature(), result);
+    @Around("execution(* com.example.serverstatuschecker.service.ServerStatusService.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            if (!log.isInfoEnabled() || !sampled()) {
+                return joinPoint.proceed();
+            }
+            long start = System.nanoTime();
+            Object result = joinPoint.proceed();
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (properties.getMode() == TracingProperties.Mode.FULL) {
+                int maxLength = properties.getMaxArgLength();
+                log.info("Method: {} with arguments: {} completed in {} µs with result: {}",
+                        joinPoint.getSignature().toShortString(),
+                        ArgumentRenderer.renderAll(joinPoint.getArgs(), maxLength), micros,
+                        ArgumentRenderer.render(result, maxLength));
+            } else {
+                log.info("Method: {} completed in {} µs", joinPoint.getSignature().toShortString(), micros);
+            }
+            return result;
+        } catch (Throwable error) {
+            log.error("Method: {} threw exception: {}", joinPoint.getSignature().toShortString(), error.getMessage());
+            throw error;
+        }
     }
 
-    @AfterThrowing(pointcut = "execution(* com.example.serverstatuschecker.service.ServerStatusService.*(..))", throwing = "error")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable error) {
-        log.error("Method: {} threw exception: {}", joinPoint.getSignature(), error.getMessage());
+    private boolean sampled() {
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.example.serverstatuschecker.cache;
+
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.dto.CacheRegionStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+public class CacheRegion<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+
+    public CacheRegion(String name, CacheProperties.Region settings) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key) {
+        return key == null ? null : cache.getIfPresent(key);
+    }
+
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        return cache.get(key, mappingFunction);
+    }
+
+    public void put(K key, V value) {
+        if (key != null && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    public void invalidate(K key) {
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    public Collection<V> values() {
+        return cache.asMap().values();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    public CacheRegionStats stats() {
+        CacheStats stats = cache.stats();
+        return new CacheRegionStats(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
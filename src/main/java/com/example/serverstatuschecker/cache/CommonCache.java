@@ -1,111 +1,240 @@
 package com.example.serverstatuschecker.cache;
 
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.dto.CacheRegionStats;
 import com.example.serverstatuschecker.model.Server;
 import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.probe.UrlNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 
 @Component
-public class CommonCache {
-    private final Map<String, Object> cache = new HashMap<>();
+public class CommonCache implements MeterBinder {
 
+    private final CacheRegion<Long, Server> servers;
+    private final EntityListView<Server> allServers;
+    private final CacheRegion<Long, ServerStatus> statuses;
+    private final EntityListView<ServerStatus> allStatuses;
+    private final CacheRegion<String, EntityListView<ServerStatus>> statusesByServer;
+    private final CacheRegion<String, ServerStatus> probeResults;
+    private final Duration statusesByServerTtl;
+    private final long statusListMaxSize;
 
-    public <T> T getById(Long id, String key) {
-        if (id == null || key == null) {
-            return null;
-        }
-        return (T) cache.get(key);
+    /**
+     * List views take their TTL from their region and hold at most the {@code max-size} of the
+     * {@code server-list} or {@code status-list} region; statuses are history, so the status
+     * lists outgrow it first and are then read straight from the database.
+     */
+    public CommonCache(CacheProperties properties) {
+        CacheProperties.Region serverList = properties.getRegion("server-list");
+        CacheProperties.Region statusList = properties.getRegion("status-list");
+        servers = region("server", properties);
+        allServers = new EntityListView<>(Server::getId, serverList.getTtl(), serverList.getMaxSize());
+        statuses = region("status", properties);
+        allStatuses = new EntityListView<>(ServerStatus::getId, statusList.getTtl(), statusList.getMaxSize());
+        statusesByServer = region("status-by-server", properties);
+        statusesByServerTtl = properties.getRegion("status-by-server").getTtl();
+        statusListMaxSize = statusList.getMaxSize();
+        probeResults = region("probe-result", properties);
     }
 
-    public <T> List<T> getAll(String key) {
-        if (key == null) {
-            return null;
-        }
-        return (List<T>) cache.get(key);
+    private static <K, V> CacheRegion<K, V> region(String name, CacheProperties properties) {
+        return new CacheRegion<>(name, properties.getRegion(name));
     }
 
-    public void put(Object entity, String key) {
-        if (entity != null && key != null) {
-            cache.put(key, entity);
-        }
-    }
 
-    public void putAll(List<?> entities, String key) {
-        if (entities != null && key != null) {
-            cache.put(key, entities);
-        }
+    public Server getServerById(long id) {
+        return servers.get(id);
     }
 
-    public void clearCache(String prefix) {
-        if (prefix != null) {
-            cache.keySet().removeIf(key -> key.startsWith(prefix) || key.equals(prefix));
-        }
+    public List<Server> getAllServers() {
+        return allServers.snapshot();
     }
 
-
-    public Server getServerById(Long id) {
-        return getById(id, "server_" + id);
+    public String getAllServersTag() {
+        return allServers.currentTag();
     }
 
-    public List<Server> getAllServers() {
-        return getAll("all_servers");
+    public String tagOfServers(List<Server> servers) {
+        return allServers.tagOf(servers);
     }
 
     public void putServer(Server server) {
         if (server != null && server.getId() != null) {
-            put(server, "server_" + server.getId());
+            servers.put(server.getId(), server);
+        }
+    }
+
+    public long getAllServersVersion() {
+        return allServers.getVersion();
+    }
+
+    public void putAllServers(List<Server> servers, long loadVersion) {
+        if (servers != null) {
+            allServers.load(servers, loadVersion);
         }
     }
 
-    public void putAllServers(List<Server> servers) {
-        putAll(servers, "all_servers");
+    public void upsertServer(Server server) {
+        putServer(server);
+        allServers.upsert(server);
+    }
+
+    public void removeServer(long id) {
+        servers.invalidate(id);
+        allServers.remove(id);
     }
 
 
-    public ServerStatus getServerStatusById(Long id) {
-        return getById(id, "status_" + id);
+    public ServerStatus getServerStatusById(long id) {
+        return statuses.get(id);
     }
 
     public List<ServerStatus> getAllServerStatuses() {
-        return getAll("all_statuses");
+        return allStatuses.snapshot();
     }
 
     public List<ServerStatus> getStatusesByServerName(String serverName) {
-        return getAll("statuses_by_server_" + serverName);
+        EntityListView<ServerStatus> view = statusesByServer.get(serverName);
+        return view != null ? view.snapshot() : null;
+    }
+
+    public String getAllServerStatusesTag() {
+        return allStatuses.currentTag();
+    }
+
+    public String tagOfServerStatuses(List<ServerStatus> statuses) {
+        return allStatuses.tagOf(statuses);
+    }
+
+    public String getStatusesByServerNameTag(String serverName) {
+        EntityListView<ServerStatus> view = statusesByServer.get(serverName);
+        return view != null ? view.currentTag() : null;
+    }
+
+    public String tagOfStatusesByServerName(String serverName, List<ServerStatus> statuses) {
+        EntityListView<ServerStatus> view = statusesByServer.get(serverName);
+        return view != null ? view.tagOf(statuses) : null;
     }
 
     public void putServerStatus(ServerStatus status) {
         if (status != null && status.getId() != null) {
-            put(status, "status_" + status.getId());
+            statuses.put(status.getId(), status);
         }
     }
 
-    public void putAllServerStatuses(List<ServerStatus> statuses) {
-        putAll(statuses, "all_statuses");
+    public long getAllServerStatusesVersion() {
+        return allStatuses.getVersion();
     }
 
-    public void putStatusesByServerName(String serverName, List<ServerStatus> statuses) {
-        if (serverName != null) {
-            putAll(statuses, "statuses_by_server_" + serverName);
+    public void putAllServerStatuses(List<ServerStatus> statuses, long loadVersion) {
+        if (statuses != null) {
+            allStatuses.load(statuses, loadVersion);
         }
     }
 
+    /**
+     * Version to pass to {@link #putStatusesByServerName}. Creates the (empty) view of the
+     * name, so writes made while its statuses are being read are noticed.
+     */
+    public long getStatusesByServerNameVersion(String serverName) {
+        return statusesByServerView(serverName).getVersion();
+    }
+
+    public void putStatusesByServerName(String serverName, List<ServerStatus> statuses, long loadVersion) {
+        if (serverName != null && statuses != null) {
+            statusesByServerView(serverName).load(statuses, loadVersion);
+        }
+    }
+
+    private EntityListView<ServerStatus> statusesByServerView(String serverName) {
+        return statusesByServer.get(serverName,
+                name -> new EntityListView<>(ServerStatus::getId, statusesByServerTtl, statusListMaxSize));
+    }
+
+    /**
+     * Stores a created or updated status by id and patches the cached list views that are
+     * already loaded. Views that are not loaded stay empty and are rebuilt on the next read.
+     */
+    public void upsertServerStatus(ServerStatus status) {
+        putServerStatus(status);
+        allStatuses.upsert(status);
+        Server server = status != null ? status.getServer() : null;
+        if (server != null && server.getName() != null) {
+            EntityListView<ServerStatus> view = statusesByServer.get(server.getName());
+            if (view != null) {
+                view.upsert(status);
+            }
+        }
+    }
+
+    public void removeServerStatus(long id) {
+        statuses.invalidate(id);
+        allStatuses.remove(id);
+        statusesByServer.values().forEach(view -> view.remove(id));
+        probeResults.values().removeIf(status -> status.getId() != null && status.getId() == id);
+    }
+
+    public void invalidateStatusesByServerName(String serverName) {
+        statusesByServer.invalidate(serverName);
+    }
+
+
+    public ServerStatus getProbeResult(String url) {
+        return probeResults.get(UrlNormalizer.normalize(url));
+    }
+
+    public void putProbeResult(String url, ServerStatus status) {
+        probeResults.put(UrlNormalizer.normalize(url), status);
+    }
+
 
     public void clearServerCache() {
-        clearCache("server_");
-        cache.remove("all_servers");
+        servers.invalidateAll();
+        allServers.invalidate();
     }
 
     public void clearServerStatusCache() {
-        clearCache("status_");
-        clearCache("statuses_by_server_");
-        cache.remove("all_statuses");
+        statuses.invalidateAll();
+        allStatuses.invalidate();
+        statusesByServer.invalidateAll();
+        probeResults.invalidateAll();
     }
 
     public void clearAllCache() {
-        cache.clear();
+        clearServerCache();
+        clearServerStatusCache();
+    }
+
+    /**
+     * Caffeine regions report the standard cache.* meters; the list views are not Caffeine
+     * caches, so their hits, misses and sizes are registered under the same names.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        servers.bindTo(registry);
+        statuses.bindTo(registry);
+        statusesByServer.bindTo(registry);
+        probeResults.bindTo(registry);
+        bindView(registry, "server-list", allServers);
+        bindView(registry, "status-list", allStatuses);
+    }
+
+    private static void bindView(MeterRegistry registry, String name, EntityListView<?> view) {
+        FunctionCounter.builder("cache.gets", view, EntityListView::getHitCount)
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", view, EntityListView::getMissCount)
+                .tags("cache", name, "result", "miss").register(registry);
+        Gauge.builder("cache.size", view, EntityListView::size).tag("cache", name).register(registry);
+    }
+
+    public List<CacheRegionStats> getStats() {
+        return List.of(servers.stats(), statuses.stats(), statusesByServer.stats(), probeResults.stats());
     }
-}
\ No newline at end of file
+}
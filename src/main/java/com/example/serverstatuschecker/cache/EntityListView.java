@@ -0,0 +1,171 @@
+package com.example.serverstatuschecker.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cached list of entities ordered by id that is patched in place on writes instead of being
+ * reloaded from the database. Until {@link #load} is called (and again after it expires)
+ * the view is empty and {@link #snapshot} returns null, so the next read rebuilds it.
+ * <p>
+ * A rebuild reads {@link #getVersion} before its query and passes it to {@link #load}. Every
+ * write changes the version, loaded or not, so a result that may predate a concurrent write is
+ * discarded instead of cached. Versions come from one counter shared by all views, so a
+ * version read from a view that has since been replaced never matches its successor.
+ * <p>
+ * A view holds at most {@code maxSize} entities. A larger list is not cached at all, and an
+ * insert that would grow a loaded view past the limit unloads it, so memory and the copy a
+ * read makes after a write stay bounded; such lists are read from the database every time.
+ */
+public class EntityListView<T> {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final Function<T, Long> idExtractor;
+    private final long ttlNanos;
+    private final long maxSize;
+    private final ConcurrentSkipListMap<Long, T> entities = new ConcurrentSkipListMap<>();
+    private final AtomicLong version = new AtomicLong(VERSIONS.incrementAndGet());
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+    private volatile Snapshot<T> snapshot;
+
+    public EntityListView(Function<T, Long> idExtractor, Duration ttl, long maxSize) {
+        this.idExtractor = idExtractor;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public List<T> snapshot() {
+        if (!loaded) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - loadedAt > ttlNanos) {
+            invalidate();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        long currentVersion = version.get();
+        Snapshot<T> current = snapshot;
+        if (current != null && current.version == currentVersion) {
+            return current.items;
+        }
+        List<T> items = List.copyOf(entities.values());
+        snapshot = new Snapshot<>(currentVersion, items);
+        return items;
+    }
+
+    /**
+     * Replaces the content with {@code items}, read by a query that started when the view was
+     * at {@code loadVersion}. Returns false, leaving the view unloaded, when a write happened
+     * in between or the list is larger than the view may hold.
+     */
+    public synchronized boolean load(List<T> items, long loadVersion) {
+        if (version.get() != loadVersion || items.size() > maxSize) {
+            return false;
+        }
+        entities.clear();
+        for (T item : items) {
+            Long id = idExtractor.apply(item);
+            if (id != null) {
+                entities.put(id, item);
+            }
+        }
+        bumpVersion();
+        loadedAt = System.nanoTime();
+        loaded = true;
+        return true;
+    }
+
+    public synchronized void upsert(T item) {
+        Long id = item != null ? idExtractor.apply(item) : null;
+        if (id == null) {
+            return;
+        }
+        if (loaded) {
+            if (entities.size() >= maxSize && !entities.containsKey(id)) {
+                invalidate();
+                return;
+            }
+            entities.put(id, item);
+        }
+        bumpVersion();
+    }
+
+    public synchronized void remove(long id) {
+        entities.remove(id);
+        bumpVersion();
+    }
+
+    public synchronized void invalidate() {
+        loaded = false;
+        entities.clear();
+        bumpVersion();
+        snapshot = null;
+    }
+
+    private void bumpVersion() {
+        version.set(VERSIONS.incrementAndGet());
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Entity tag of the list {@link #snapshot} would return now, or null when the view has to
+     * be reloaded first. Tags carry a per-view random epoch, so they never repeat across
+     * reloads of a name-keyed view or application restarts. Does not count as a hit or miss.
+     */
+    public String currentTag() {
+        if (!loaded || System.nanoTime() - loadedAt > ttlNanos) {
+            return null;
+        }
+        return tag(version.get());
+    }
+
+    /**
+     * Entity tag of {@code items} if it is the latest list returned by {@link #snapshot},
+     * otherwise null.
+     */
+    public String tagOf(List<T> items) {
+        Snapshot<T> current = snapshot;
+        return current != null && current.items == items ? tag(current.version) : null;
+    }
+
+    private String tag(long snapshotVersion) {
+        return epoch + "-" + snapshotVersion;
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final class Snapshot<T> {
+        private final long version;
+        private final List<T> items;
+
+        private Snapshot(long version, List<T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+}
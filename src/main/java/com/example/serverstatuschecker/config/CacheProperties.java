@@ -0,0 +1,37 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+    private static final long DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_MINUTES = 5;
+
+    private Region defaults = new Region(Duration.ofMinutes(DEFAULT_TTL_MINUTES), DEFAULT_MAX_SIZE);
+    private Map<String, Region> regions = new HashMap<>();
+
+    public Region getRegion(String name) {
+        Region region = regions.get(name);
+        if (region == null) {
+            return defaults;
+        }
+        return new Region(region.getTtl() != null ? region.getTtl() : defaults.getTtl(),
+                region.getMaxSize() > 0 ? region.getMaxSize() : defaults.getMaxSize());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private Duration ttl;
+        private long maxSize;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "persistence.change-only")
+public class ChangeOnlyProperties {
+    private boolean enabled = false;
+    private Duration heartbeat = Duration.ofMinutes(15);
+    private int maxTrackedUrls = 100_000;
+}
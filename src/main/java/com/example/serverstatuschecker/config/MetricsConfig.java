@@ -0,0 +1,43 @@
+package com.example.serverstatuschecker.config;
+
+import com.example.serverstatuschecker.monitoring.MonitoringScheduler;
+import com.example.serverstatuschecker.service.RequestCounterService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder probeExecutorMetrics(ExecutorService probeExecutor) {
+        return new ExecutorServiceMetrics(probeExecutor, "probe", Tags.empty());
+    }
+
+    @Bean
+    public MeterBinder requestCountMetrics(RequestCounterService counterService) {
+        return registry -> FunctionCounter.builder("service.requests", counterService, RequestCounterService::getTotal)
+                .description("Service calls counted by RequestCounterService")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder monitoringMetrics(MonitoringScheduler monitoringScheduler) {
+        return registry -> {
+            Gauge.builder("monitoring.targets", monitoringScheduler, s -> s.getStats().getTargets())
+                    .register(registry);
+            Gauge.builder("monitoring.queue.depth", monitoringScheduler, s -> s.getStats().getScheduled())
+                    .register(registry);
+            Gauge.builder("monitoring.in.flight", monitoringScheduler, s -> s.getStats().getInFlight())
+                    .register(registry);
+            FunctionCounter.builder("monitoring.checks", monitoringScheduler,
+                    s -> s.getStats().getCompletedChecks()).register(registry);
+        };
+    }
+}
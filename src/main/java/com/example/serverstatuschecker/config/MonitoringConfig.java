@@ -0,0 +1,9 @@
+package com.example.serverstatuschecker.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(MonitoringProperties.class)
+public class MonitoringConfig {
+}
@@ -0,0 +1,15 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "monitoring")
+public class MonitoringProperties {
+    private boolean enabled = true;
+    private int defaultIntervalSeconds = 60;
+    private int minIntervalSeconds = 5;
+    private double jitterRatio = 0.1;
+    private int maxConcurrentProbes = 64;
+    private int recordThreads = 4;
+}
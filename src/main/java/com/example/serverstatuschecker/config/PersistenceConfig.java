@@ -0,0 +1,9 @@
+package com.example.serverstatuschecker.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({WriteBehindProperties.class, ChangeOnlyProperties.class})
+public class PersistenceConfig {
+}
@@ -0,0 +1,57 @@
+package com.example.serverstatuschecker.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(ProbeProperties.class)
+public class ProbeConfig {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Runs the HttpClient's response handling. The queue is unbounded on purpose: a rejecting
+     * pool would push the work back onto the client's selector thread (caller-runs) or make the
+     * client quietly fall back to the common pool (abort), and the number of exchanges, and so
+     * of queued tasks, is already capped by {@code probe.throttle.max-in-flight}.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService probeExecutor(ProbeProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getPoolSize(), properties.getPoolSize(),
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                namedThreadFactory("probe-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean
+    public HttpClient probeHttpClient(ProbeProperties properties, ExecutorService probeExecutor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(probeExecutor)
+                .build();
+    }
+
+    static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
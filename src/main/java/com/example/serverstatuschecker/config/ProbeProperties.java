@@ -0,0 +1,77 @@
+package com.example.serverstatuschecker.config;
+
+import com.example.serverstatuschecker.probe.ProbeMethod;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "probe")
+public class ProbeProperties {
+    private int connectTimeoutMs = 5000;
+    private int readTimeoutMs = 5000;
+    private int poolSize = 64;
+    private ProbeMethod defaultMethod = ProbeMethod.HEAD;
+    private Bulk bulk = new Bulk();
+    private Latency latency = new Latency();
+    private Adaptive adaptive = new Adaptive();
+    private Breaker breaker = new Breaker();
+    private Dns dns = new Dns();
+    private Throttle throttle = new Throttle();
+    private Metrics metrics = new Metrics();
+
+    @Data
+    public static class Bulk {
+        private int maxConcurrency = 32;
+        private long deadlineMs = 15000;
+    }
+
+    @Data
+    public static class Latency {
+        private int windowSlots = 5;
+        private Duration slotDuration = Duration.ofMinutes(1);
+        private int maxTargets = 10_000;
+    }
+
+    @Data
+    public static class Adaptive {
+        private boolean enabled = true;
+        private int minSamples = 20;
+        private int sampleWindow = 200;
+        private double percentile = 99;
+        private double multiplier = 3.0;
+        private long minTimeoutMs = 500;
+    }
+
+    @Data
+    public static class Breaker {
+        private boolean enabled = true;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private Duration maxOpenDuration = Duration.ofMinutes(10);
+        private int maxHosts = 10_000;
+    }
+
+    @Data
+    public static class Dns {
+        private Duration positiveTtl = Duration.ofSeconds(30);
+        private Duration negativeTtl = Duration.ofSeconds(10);
+        private int resolverThreads = 4;
+        private int maxHosts = 10_000;
+    }
+
+    @Data
+    public static class Throttle {
+        private int maxInFlight = 256;
+        private int hostMaxInFlight = 8;
+        private double hostRate = 20;
+        private int hostBurst = 20;
+        private int hostMaxQueued = 1000;
+    }
+
+    @Data
+    public static class Metrics {
+        private int maxTargets = 200;
+    }
+}
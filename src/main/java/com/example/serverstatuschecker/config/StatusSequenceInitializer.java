@@ -0,0 +1,38 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StatusSequenceInitializer implements SmartInitializingSingleton {
+
+    private static final String ALIGN_SEQUENCE =
+            "SELECT setval('server_statuses_seq', m.max_id) "
+                    + "FROM (SELECT MAX(id) AS max_id FROM server_statuses) m "
+                    + "WHERE m.max_id > (SELECT last_value FROM server_statuses_seq)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * server_statuses used an IDENTITY column before switching to a pooled sequence;
+     * moves the sequence past ids that were generated by the old column. Runs once all
+     * singletons exist but before lifecycle beans start, so the monitoring scheduler and the
+     * write-behind writer never insert with a stale sequence.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.query(ALIGN_SEQUENCE, rs -> {
+                log.info("Последовательность server_statuses_seq сдвинута до {}", rs.getLong(1));
+            });
+        } catch (DataAccessException e) {
+            log.warn("Не удалось выровнять последовательность server_statuses_seq: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.serverstatuschecker.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StreamProperties.class)
+public class StreamConfig {
+}
@@ -0,0 +1,22 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "stream")
+public class StreamProperties {
+    private int bufferSize = 256;
+    private int maxSubscribers = 500;
+    private int senderThreads = 2;
+    private Duration heartbeat = Duration.ofSeconds(15);
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofMinutes(30);
+    private int maxTrackedUrls = 100_000;
+    private List<Duration> latencyBands = new ArrayList<>(List.of(
+            Duration.ofMillis(250), Duration.ofSeconds(1), Duration.ofSeconds(5)));
+}
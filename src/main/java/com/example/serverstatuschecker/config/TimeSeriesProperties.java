@@ -0,0 +1,21 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "timeseries")
+public class TimeSeriesProperties {
+    private boolean enabled = true;
+    private int queueCapacity = 50_000;
+    private int batchSize = 1000;
+    private long flushIntervalMs = 1000;
+    private int partitionsAhead = 3;
+    private String retentionCron = "0 15 0 * * *";
+    private Duration rawRetention = Duration.ofDays(14);
+    private Duration minuteRollupRetention = Duration.ofDays(7);
+    private Duration hourRollupRetention = Duration.ofDays(90);
+    private Duration dayRollupRetention = Duration.ofDays(730);
+}
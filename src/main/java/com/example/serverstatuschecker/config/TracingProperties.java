@@ -0,0 +1,18 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+    private boolean enabled = false;
+    private Mode mode = Mode.TIMING;
+    private double sampleRate = 0.01;
+    private int maxArgLength = 200;
+
+    public enum Mode {
+        TIMING,
+        FULL
+    }
+}
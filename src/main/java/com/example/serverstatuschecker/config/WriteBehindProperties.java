@@ -0,0 +1,16 @@
+package com.example.serverstatuschecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "persistence.write-behind")
+public class WriteBehindProperties {
+    private boolean enabled = false;
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private long flushIntervalMs = 200;
+    private long offerTimeoutMs = 1000;
+    private int maxRetries = 3;
+    private long retryBackoffMs = 100;
+}
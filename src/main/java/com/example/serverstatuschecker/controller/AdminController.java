@@ -0,0 +1,56 @@
+package com.example.serverstatuschecker.controller;
+
+import com.example.serverstatuschecker.cache.CommonCache;
+import com.example.serverstatuschecker.dto.CacheRegionStats;
+import com.example.serverstatuschecker.dto.HostHealth;
+import com.example.serverstatuschecker.dto.MonitoringStats;
+import com.example.serverstatuschecker.dto.SingleFlightStats;
+import com.example.serverstatuschecker.monitoring.MonitoringScheduler;
+import com.example.serverstatuschecker.probe.ProbeEngine;
+import com.example.serverstatuschecker.service.ServerStatusService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final CommonCache cache;
+    private final MonitoringScheduler monitoringScheduler;
+    private final ServerStatusService serverStatusService;
+    private final ProbeEngine probeEngine;
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cache.getStats());
+    }
+
+    @PostMapping("/cache/clear")
+    public ResponseEntity<Void> clearCache() {
+        cache.clearAllCache();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/monitoring")
+    public ResponseEntity<MonitoringStats> getMonitoringStats() {
+        return ResponseEntity.ok(monitoringScheduler.getStats());
+    }
+
+    @GetMapping("/probe-stats")
+    public ResponseEntity<List<SingleFlightStats>> getProbeStats() {
+        return ResponseEntity.ok(List.of(serverStatusService.getCheckCoalescingStats(),
+                probeEngine.getCoalescingStats()));
+    }
+
+    @GetMapping("/probe-hosts")
+    public ResponseEntity<List<HostHealth>> getProbeHosts() {
+        return ResponseEntity.ok(probeEngine.getHostHealth());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.serverstatuschecker.controller;
+
+import com.example.serverstatuschecker.dto.TaggedList;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Conditional GET for cached list views. The service answers with only the tag when the
+ * client's {@code If-None-Match} names the version currently cached, which becomes a 304
+ * without loading or serializing the list; otherwise the list is returned with the tag of
+ * exactly that version, if it came from the cache. A list freshly loaded from the database goes
+ * out untagged, and the next read is served from the cache with a tag.
+ */
+final class ConditionalGet {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Whether a current tag satisfies the request's {@code If-None-Match}, never when it has none.
+     */
+    static Predicate<String> matching(String ifNoneMatch) {
+        return tag -> ifNoneMatch != null && matches(ifNoneMatch, tag);
+    }
+
+    static <T> ResponseEntity<List<T>> respond(TaggedList<T> list) {
+        if (list.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(list.getTag()).build();
+        }
+        return list.getTag() != null
+                ? ResponseEntity.ok().eTag(list.getTag()).body(list.getItems())
+                : ResponseEntity.ok(list.getItems());
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a {@code W/} prefix on either side is ignored.
+     */
+    private static boolean matches(String ifNoneMatch, String tag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (ANY.equals(value)) {
+                return true;
+            }
+            if (value.startsWith(WEAK_PREFIX)) {
+                value = value.substring(WEAK_PREFIX.length());
+            }
+            if (value.equals("\"" + tag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
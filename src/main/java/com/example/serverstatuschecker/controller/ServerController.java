@@ -1,11 +1,16 @@
 package com.example.serverstatuschecker.controller;
 
+import com.example.serverstatuschecker.dto.UptimeReport;
 import com.example.serverstatuschecker.model.Server;
 import com.example.serverstatuschecker.service.ServerService;
+import com.example.serverstatuschecker.timeseries.Resolution;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -13,6 +18,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ServerController {
 
+    private static final Duration DEFAULT_UPTIME_WINDOW = Duration.ofDays(1);
+
     private final ServerService serverService;
 
     @PostMapping
@@ -24,8 +31,9 @@ public class ServerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Server>> getAllServers() {
-        return ResponseEntity.ok(serverService.getAllServers());
+    public ResponseEntity<List<Server>> getAllServers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(serverService.getAllServers(ConditionalGet.matching(ifNoneMatch)));
     }
 
     @GetMapping("/{id}")
@@ -52,4 +60,17 @@ public class ServerController {
         serverService.deleteServer(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/uptime")
+    public ResponseEntity<UptimeReport> getUptime(@PathVariable Long id,
+                                                  @RequestParam(required = false) Instant from,
+                                                  @RequestParam(required = false) Instant to,
+                                                  @RequestParam(defaultValue = "HOUR") Resolution resolution) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Invalid server ID");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_UPTIME_WINDOW);
+        return ResponseEntity.ok(serverService.getUptime(id, start, end, resolution));
+    }
+}
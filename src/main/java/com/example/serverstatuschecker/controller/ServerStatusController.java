@@ -1,34 +1,71 @@
 package com.example.serverstatuschecker.controller;
 
+import com.example.serverstatuschecker.dto.RequestRates;
 import com.example.serverstatuschecker.dto.ServerStatusDto;
+import com.example.serverstatuschecker.dto.ServerStatusFilter;
+import com.example.serverstatuschecker.dto.ServerStatusPage;
+import com.example.serverstatuschecker.dto.StatusHistory;
+import com.example.serverstatuschecker.dto.TargetLatency;
 import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.probe.LatencyTracker;
+import com.example.serverstatuschecker.probe.ProbeMethod;
 import com.example.serverstatuschecker.service.RequestCounterService;
 import com.example.serverstatuschecker.service.ServerStatusService;
+import com.example.serverstatuschecker.stream.StatusStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/server-status")
 @RequiredArgsConstructor
 public class ServerStatusController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofDays(1);
+
     private final ServerStatusService serverStatusService;
     private final RequestCounterService counterService;
+    private final ObjectMapper objectMapper;
+    private final LatencyTracker latencyTracker;
+    private final StatusStream statusStream;
 
     @GetMapping("/check")
-    public ResponseEntity<ServerStatus> checkServerStatus(@RequestParam String url) {
+    public ResponseEntity<ServerStatus> checkServerStatus(@RequestParam String url,
+                                                          @RequestParam(required = false) ProbeMethod method) {
         if (url == null || url.trim().isEmpty()) {
             throw new IllegalArgumentException("URL не может быть пустым или null");
         }
         ServerStatus request = new ServerStatus();
         request.setUrl(url);
-        ServerStatus response = serverStatusService.checkServerStatus(request);
+        ServerStatus response = serverStatusService.checkServerStatus(request, method);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTransitions(@RequestParam(required = false) Set<Long> serverId) {
+        return statusStream.subscribe(serverId != null ? serverId : Set.of());
+    }
+
+    @GetMapping("/latency")
+    public ResponseEntity<List<TargetLatency>> getLatencies(@RequestParam(required = false) String url) {
+        return ResponseEntity.ok(latencyTracker.getLatencies(url));
+    }
+
     @PostMapping
     public ResponseEntity<ServerStatus> createServerStatus(@RequestBody ServerStatus serverStatus) {
         if (serverStatus == null || serverStatus.getUrl() == null || serverStatus.getUrl().trim().isEmpty() ||
@@ -48,8 +85,63 @@ public class ServerStatusController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ServerStatus>> getAllServerStatuses() {
-        return ResponseEntity.ok(serverStatusService.getAllServerStatuses());
+    public ResponseEntity<List<ServerStatus>> getAllServerStatuses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalGet.respond(serverStatusService.getAllServerStatuses(ConditionalGet.matching(ifNoneMatch)));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<ServerStatusPage> getServerStatusPage(@RequestParam int limit,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestParam(required = false) String serverName,
+                                                                @RequestParam(required = false) String url,
+                                                                @RequestParam(required = false) Instant from,
+                                                                @RequestParam(required = false) Instant to) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(serverStatusService.getServerStatusPage(
+                new ServerStatusFilter(serverName, url, from, to), after, limit));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportServerStatuses(
+            @RequestParam(required = false) String serverName) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                serverStatusService.forEachServerStatus(serverName, status -> {
+                    try {
+                        writer.write(status);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().header("Content-Type", NDJSON).body(body);
+    }
+
+    @GetMapping("/at")
+    public ResponseEntity<ServerStatus> getStatusAt(@RequestParam String url, @RequestParam Instant time) {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("URL не может быть пустым или null");
+        }
+        return ResponseEntity.ok(serverStatusService.getStatusAt(url, time));
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<StatusHistory> getStatusHistory(@RequestParam String url,
+                                                          @RequestParam(required = false) Instant from,
+                                                          @RequestParam(required = false) Instant to) {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("URL не может быть пустым или null");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_WINDOW);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше конца");
+        }
+        return ResponseEntity.ok(serverStatusService.getStatusHistory(url, start, end));
     }
 
     @GetMapping("/{id}")
@@ -78,11 +170,24 @@ public class ServerStatusController {
     }
 
     @GetMapping("/statuses-by-server")
-    public ResponseEntity<List<ServerStatus>> getStatusesByServerName(@RequestParam String serverName) {
+    public ResponseEntity<List<ServerStatus>> getStatusesByServerName(
+            @RequestParam String serverName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (serverName == null || serverName.trim().isEmpty()) {
             throw new IllegalArgumentException("Имя сервера не может быть пустым или null");
         }
-        return ResponseEntity.ok(serverStatusService.getStatusesByServerName(serverName));
+        return ConditionalGet.respond(
+                serverStatusService.getStatusesByServerName(serverName, ConditionalGet.matching(ifNoneMatch)));
+    }
+
+    @GetMapping(value = "/statuses-by-server", params = "limit")
+    public ResponseEntity<ServerStatusPage> getStatusPageByServerName(@RequestParam String serverName,
+                                                                      @RequestParam int limit,
+                                                                      @RequestParam(required = false) Long after) {
+        if (serverName == null || serverName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Имя сервера не может быть пустым или null");
+        }
+        return getServerStatusPage(limit, after, serverName, null, null, null);
     }
 
     @GetMapping("/request-count")
@@ -90,6 +195,11 @@ public class ServerStatusController {
         return ResponseEntity.ok(counterService.getCount());
     }
 
+    @GetMapping("/request-rate")
+    public ResponseEntity<RequestRates> getRequestRates() {
+        return ResponseEntity.ok(counterService.getRates());
+    }
+
     @PostMapping("/request-count/reset")
     public ResponseEntity<Void> resetRequestCount() {
         counterService.reset();
@@ -0,0 +1,18 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class HostHealth {
+    private String host;
+    private String circuit;
+    private int consecutiveFailures;
+    private long timeoutMs;
+    private long latencySamples;
+    private Instant retryAt;
+    private String lastFailure;
+}
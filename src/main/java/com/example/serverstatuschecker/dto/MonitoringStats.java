@@ -0,0 +1,14 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MonitoringStats {
+    private boolean running;
+    private int targets;
+    private int scheduled;
+    private int inFlight;
+    private long completedChecks;
+}
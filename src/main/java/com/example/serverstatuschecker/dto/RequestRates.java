@@ -0,0 +1,17 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class RequestRates {
+    private long count;
+    private Instant since;
+    private long total;
+    private double oneMinuteRate;
+    private double fiveMinuteRate;
+    private double fifteenMinuteRate;
+}
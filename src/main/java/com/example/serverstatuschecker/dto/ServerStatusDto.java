@@ -1,5 +1,6 @@
 package com.example.serverstatuschecker.dto;
 
+import com.example.serverstatuschecker.probe.ProbeMethod;
 import lombok.Data;
 
 @Data
@@ -7,6 +8,7 @@ public class ServerStatusDto {
     private String url;
     private boolean isAvailable;
     private String message;
+    private ProbeMethod probeMethod;
 
     public void setIsAvailable(boolean isAvailable) {
         this.isAvailable = isAvailable;
@@ -0,0 +1,17 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServerStatusFilter {
+    private String serverName;
+    private String url;
+    private Instant from;
+    private Instant to;
+}
@@ -0,0 +1,14 @@
+package com.example.serverstatuschecker.dto;
+
+import com.example.serverstatuschecker.model.ServerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ServerStatusPage {
+    private List<ServerStatus> items;
+    private Long nextCursor;
+}
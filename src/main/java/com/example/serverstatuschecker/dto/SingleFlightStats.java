@@ -0,0 +1,13 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SingleFlightStats {
+    private String name;
+    private long started;
+    private long coalesced;
+    private int inFlight;
+}
@@ -0,0 +1,16 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StatusHistory {
+    private String url;
+    private Instant from;
+    private Instant to;
+    private List<StatusInterval> intervals;
+}
@@ -0,0 +1,17 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class StatusInterval {
+    private Instant start;
+    private Instant end;
+    private boolean available;
+    private String message;
+    private long storedChecks;
+    private Instant lastCheckedAt;
+}
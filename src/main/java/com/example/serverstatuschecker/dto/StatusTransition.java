@@ -0,0 +1,31 @@
+package com.example.serverstatuschecker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatusTransition {
+
+    public enum Kind {
+        AVAILABILITY,
+        LATENCY
+    }
+
+    private long sequence;
+    private Kind kind;
+    private String url;
+    private Long serverId;
+    private Boolean previousAvailable;
+    private boolean available;
+    private String previousLatencyBand;
+    private String latencyBand;
+    private Integer statusCode;
+    private Double latencyMs;
+    private String message;
+    private Instant checkedAt;
+}
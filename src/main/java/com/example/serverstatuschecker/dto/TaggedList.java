@@ -0,0 +1,26 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A list read together with the entity tag of the cached version it came from. {@code items}
+ * is null when the caller already holds that version; {@code tag} is null when the list was
+ * read from the database rather than the cache.
+ */
+@Data
+@AllArgsConstructor
+public class TaggedList<T> {
+    private List<T> items;
+    private String tag;
+
+    public static <T> TaggedList<T> notModified(String tag) {
+        return new TaggedList<>(null, tag);
+    }
+
+    public boolean isNotModified() {
+        return items == null;
+    }
+}
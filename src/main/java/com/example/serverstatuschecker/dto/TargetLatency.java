@@ -0,0 +1,16 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TargetLatency {
+    private String url;
+    private long windowSeconds;
+    private long probes;
+    private long failures;
+    private LatencySummary total;
+    private LatencySummary ttfb;
+    private LatencySummary dns;
+}
@@ -0,0 +1,20 @@
+package com.example.serverstatuschecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class UptimeBucket {
+    private Instant start;
+    private long probes;
+    private long up;
+    private Double availability;
+    private double avgLatencyMs;
+    private double p50LatencyMs;
+    private double p95LatencyMs;
+    private double p99LatencyMs;
+    private double maxLatencyMs;
+}
@@ -0,0 +1,19 @@
+package com.example.serverstatuschecker.dto;
+
+import com.example.serverstatuschecker.timeseries.Resolution;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UptimeReport {
+    private long serverId;
+    private Resolution resolution;
+    private Instant from;
+    private Instant to;
+    private UptimeBucket total;
+    private List<UptimeBucket> buckets;
+}
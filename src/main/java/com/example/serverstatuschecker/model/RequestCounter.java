@@ -1,19 +1,144 @@
 package com.example.serverstatuschecker.counter;
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+/**
+ * Request counter built on a striped {@link LongAdder}, so concurrent increments from many
+ * cores do not contend on one cache line. The adder is never cleared: {@link #reset} swaps in
+ * a new baseline snapshot, so an increment racing with a reset is counted in exactly one of the
+ * two periods. 1, 5 and 15 minute rates are exponentially weighted moving averages updated
+ * every five seconds, lazily on read.
+ */
 public class RequestCounter {
-    private final AtomicLong count = new AtomicLong(0);
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double TICK_SECONDS = 5.0;
+    private static final long MAX_CATCH_UP_TICKS = 1000;
+    private static final int ONE_MINUTE = 1;
+    private static final int FIVE_MINUTES = 5;
+    private static final int FIFTEEN_MINUTES = 15;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicReference<Snapshot> baseline;
+    private final LongSupplier nanoClock;
+    private final Ewma oneMinuteRate = new Ewma(ONE_MINUTE);
+    private final Ewma fiveMinuteRate = new Ewma(FIVE_MINUTES);
+    private final Ewma fifteenMinuteRate = new Ewma(FIFTEEN_MINUTES);
+    private long lastTick;
+    private long lastTickTotal;
+
+    public RequestCounter() {
+        this(System::nanoTime);
+    }
+
+    RequestCounter(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastTick = nanoClock.getAsLong();
+        this.baseline = new AtomicReference<>(new Snapshot(0, Instant.now()));
+    }
 
     public void increment() {
-        count.incrementAndGet();
+        total.increment();
     }
 
     public long getCount() {
-        return count.get();
+        Snapshot current = baseline.get();
+        return total.sum() - current.total;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public Instant getResetAt() {
+        return baseline.get().takenAt;
+    }
+
+    /**
+     * Starts a new counting period and returns the number of requests in the one it closed.
+     * The total is read once and serves as both the end of the closed period and the new
+     * baseline, so the periods returned by successive resets add up to the total.
+     */
+    public long reset() {
+        while (true) {
+            Snapshot previous = baseline.get();
+            long currentTotal = total.sum();
+            if (baseline.compareAndSet(previous, new Snapshot(currentTotal, Instant.now()))) {
+                return currentTotal - previous.total;
+            }
+        }
+    }
+
+    public double getOneMinuteRate() {
+        tickIfNecessary();
+        return oneMinuteRate.getRate();
     }
 
-    public void reset() {
-        count.set(0);
+    public double getFiveMinuteRate() {
+        tickIfNecessary();
+        return fiveMinuteRate.getRate();
+    }
+
+    public double getFifteenMinuteRate() {
+        tickIfNecessary();
+        return fifteenMinuteRate.getRate();
+    }
+
+    private synchronized void tickIfNecessary() {
+        long elapsed = nanoClock.getAsLong() - lastTick;
+        if (elapsed < TICK_NANOS) {
+            return;
+        }
+        long ticks = elapsed / TICK_NANOS;
+        lastTick += ticks * TICK_NANOS;
+        long currentTotal = total.sum();
+        long count = currentTotal - lastTickTotal;
+        lastTickTotal = currentTotal;
+        for (long i = 0; i < Math.min(ticks, MAX_CATCH_UP_TICKS); i++) {
+            long tickCount = i == 0 ? count : 0;
+            oneMinuteRate.update(tickCount);
+            fiveMinuteRate.update(tickCount);
+            fifteenMinuteRate.update(tickCount);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long total;
+        private final Instant takenAt;
+
+        private Snapshot(long total, Instant takenAt) {
+            this.total = total;
+            this.takenAt = takenAt;
+        }
+    }
+
+    private static final class Ewma {
+        private static final double SECONDS_PER_MINUTE = 60.0;
+
+        private final double alpha;
+        private double rate;
+        private boolean initialized;
+
+        private Ewma(int minutes) {
+            this.alpha = 1 - Math.exp(-TICK_SECONDS / SECONDS_PER_MINUTE / minutes);
+        }
+
+        private void update(long count) {
+            double instantRate = count / TICK_SECONDS;
+            if (initialized) {
+                rate += alpha * (instantRate - rate);
+            } else {
+                rate = instantRate;
+                initialized = true;
+            }
+        }
+
+        private double getRate() {
+            return rate;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package com.example.serverstatuschecker.model;
 
+import com.example.serverstatuschecker.probe.ProbeMethod;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.List;
 
@@ -17,7 +19,18 @@ public class Server {
     @Column(name = "name")
     private String name;
 
+    @Column(name = "url")
+    private String url;
+
+    @Column(name = "check_interval_seconds")
+    private Integer checkIntervalSeconds;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "probe_method")
+    private ProbeMethod probeMethod;
+
     @OneToMany(mappedBy = "server", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
+    @ToString.Exclude
     private List<ServerStatus> statuses;
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package com.example.serverstatuschecker.model;
 
+import com.example.serverstatuschecker.probe.ProbeTimings;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.ToString;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "server_statuses")
+@Table(name = "server_statuses", indexes = {
+        @Index(name = "idx_server_statuses_url_id", columnList = "url, id"),
+        @Index(name = "idx_server_statuses_checked_at", columnList = "checked_at"),
+        @Index(name = "idx_server_statuses_url_checked_at", columnList = "url, checked_at")
+})
 @Data
 public class ServerStatus {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "server_statuses_seq")
+    @SequenceGenerator(name = "server_statuses_seq", sequenceName = "server_statuses_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "url")
@@ -21,12 +34,43 @@ public class ServerStatus {
     @Column(name = "message")
     private String message;
 
+    @Column(name = "checked_at")
+    private Instant checkedAt;
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer statusCode;
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long latencyNanos;
+
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProbeTimings timings;
+
+    /**
+     * Set when the probe was never sent, for example because the throttle refused it or the
+     * bulk deadline passed first. Such a status is returned to the caller but never stored.
+     */
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean notProbed;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "server_id")
     @JsonBackReference
+    @ToString.Exclude
     private Server server;
 
     public void setIsAvailable(boolean isAvailable) {
         this.isAvailable = isAvailable;
     }
+
+    @PrePersist
+    void onCreate() {
+        if (checkedAt == null) {
+            checkedAt = Instant.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.serverstatuschecker.monitoring;
+
+import com.example.serverstatuschecker.probe.ProbeTarget;
+import lombok.Value;
+
+@Value
+class MonitoredTarget {
+    long serverId;
+    long generation;
+    ProbeTarget probeTarget;
+    long intervalNanos;
+}
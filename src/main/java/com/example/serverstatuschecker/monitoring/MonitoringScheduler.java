@@ -0,0 +1,243 @@
+package com.example.serverstatuschecker.monitoring;
+
+import com.example.serverstatuschecker.config.MonitoringProperties;
+import com.example.serverstatuschecker.dto.MonitoringStats;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.probe.ProbeEngine;
+import com.example.serverstatuschecker.probe.ProbeTarget;
+import com.example.serverstatuschecker.repository.ServerRepository;
+import com.example.serverstatuschecker.service.ServerStatusService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes every server that has a URL on its own interval. Next-run times live in a single
+ * {@link DelayQueue} drained by one dispatcher thread, so the cost per target is one queue
+ * entry rather than one thread; at most {@code monitoring.max-concurrent-probes} probes run
+ * at once and each interval is spread by {@code monitoring.jitter-ratio}.
+ * <p>
+ * Results are stored on {@code monitoring.record-threads} threads of their own, never on the
+ * HttpClient thread that completed the probe. A check keeps its permit until its result is
+ * stored, so the semaphore also bounds the results waiting for a database write.
+ */
+@Component
+@Slf4j
+public class MonitoringScheduler implements SmartLifecycle {
+
+    private static final long STOP_TIMEOUT_MS = 10_000;
+
+    private final ProbeEngine probeEngine;
+    private final ServerStatusService serverStatusService;
+    private final ServerRepository serverRepository;
+    private final MonitoringProperties properties;
+    private final Map<Long, MonitoredTarget> targets = new ConcurrentHashMap<>();
+    private final DelayQueue<ScheduledCheck> queue = new DelayQueue<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong completedChecks = new AtomicLong();
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final ExecutorService recorder;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    @Autowired
+    public MonitoringScheduler(ProbeEngine probeEngine, ServerStatusService serverStatusService,
+                               ServerRepository serverRepository, MonitoringProperties properties) {
+        this(probeEngine, serverStatusService, serverRepository, properties,
+                Executors.newFixedThreadPool(Math.max(1, properties.getRecordThreads()), recorderThreads()));
+    }
+
+    MonitoringScheduler(ProbeEngine probeEngine, ServerStatusService serverStatusService,
+                        ServerRepository serverRepository, MonitoringProperties properties, ExecutorService recorder) {
+        this.probeEngine = probeEngine;
+        this.serverStatusService = serverStatusService;
+        this.serverRepository = serverRepository;
+        this.properties = properties;
+        this.maxPermits = Math.max(1, properties.getMaxConcurrentProbes());
+        this.permits = new Semaphore(maxPermits);
+        this.recorder = recorder;
+    }
+
+    public void register(Server server) {
+        if (server == null || server.getId() == null) {
+            return;
+        }
+        if (server.getUrl() == null || server.getUrl().isBlank()) {
+            unregister(server.getId());
+            return;
+        }
+        long intervalSeconds = Math.max(properties.getMinIntervalSeconds(), server.getCheckIntervalSeconds() != null
+                ? server.getCheckIntervalSeconds() : properties.getDefaultIntervalSeconds());
+        MonitoredTarget target = new MonitoredTarget(server.getId(), generations.incrementAndGet(),
+                new ProbeTarget(server.getUrl(), server.getProbeMethod()), TimeUnit.SECONDS.toNanos(intervalSeconds));
+        targets.put(server.getId(), target);
+        long slot = System.nanoTime() + ThreadLocalRandom.current().nextLong(target.getIntervalNanos());
+        queue.add(new ScheduledCheck(target, slot, slot));
+    }
+
+    public void unregister(long serverId) {
+        targets.remove(serverId);
+    }
+
+    public MonitoringStats getStats() {
+        int inFlight = maxPermits - permits.availablePermits();
+        return new MonitoringStats(running, targets.size(), queue.size(), inFlight, completedChecks.get());
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        serverRepository.findAll().forEach(this::register);
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "monitoring-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Мониторинг запущен для {} серверов", targets.size());
+    }
+
+    /**
+     * Stops dispatching and waits for running checks to store their results, so they reach the
+     * write-behind queue before it is flushed.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        try {
+            if (permits.tryAcquire(maxPermits, STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                permits.release(maxPermits);
+            } else {
+                log.warn("Не все проверки мониторинга завершились до остановки");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recorder.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                ScheduledCheck check = queue.take();
+                if (isCurrent(check.getTarget())) {
+                    permits.acquire();
+                    run(check);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run(ScheduledCheck check) {
+        MonitoredTarget target = check.getTarget();
+        CompletableFuture<ServerStatus> probe;
+        try {
+            probe = probeEngine.probeAsync(target.getProbeTarget());
+        } catch (RuntimeException e) {
+            log.error("Не удалось запустить проверку сервера {}", target.getServerId(), e);
+            permits.release();
+            reschedule(check);
+            return;
+        }
+        probe.whenCompleteAsync((status, error) -> {
+            try {
+                if (status != null && isCurrent(target)) {
+                    record(target, status);
+                }
+            } finally {
+                permits.release();
+                completedChecks.incrementAndGet();
+                reschedule(check);
+            }
+        }, this::recordAsync);
+    }
+
+    /**
+     * Hands a completed check to the recorder. Once the recorder has been shut down the check
+     * is dropped, but its permit is still returned.
+     */
+    private void recordAsync(Runnable task) {
+        try {
+            recorder.execute(task);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+        }
+    }
+
+    private void record(MonitoredTarget target, ServerStatus status) {
+        try {
+            serverStatusService.recordMonitoringResult(target.getServerId(), target.getProbeTarget(), status);
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить результат мониторинга сервера {}", target.getServerId(), e);
+        }
+    }
+
+    private void reschedule(ScheduledCheck check) {
+        if (running && isCurrent(check.getTarget())) {
+            queue.add(nextCheck(check, System.nanoTime()));
+        }
+    }
+
+    /**
+     * The run after {@code check}: one interval after its slot, or now if that slot has already
+     * passed, moved by up to {@code monitoring.jitter-ratio} of the interval but never into the
+     * past.
+     */
+    ScheduledCheck nextCheck(ScheduledCheck check, long now) {
+        MonitoredTarget target = check.getTarget();
+        long slot = check.getSlotNanos() + target.getIntervalNanos();
+        if (slot < now) {
+            slot = now;
+        }
+        long jitterBound = (long) (target.getIntervalNanos() * properties.getJitterRatio());
+        long jitter = jitterBound > 0 ? ThreadLocalRandom.current().nextLong(-jitterBound, jitterBound + 1) : 0;
+        return new ScheduledCheck(target, slot, Math.max(slot + jitter, now));
+    }
+
+    private boolean isCurrent(MonitoredTarget target) {
+        MonitoredTarget current = targets.get(target.getServerId());
+        return current != null && current.getGeneration() == target.getGeneration();
+    }
+
+    private static ThreadFactory recorderThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "monitoring-recorder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.serverstatuschecker.monitoring;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+final class ScheduledCheck implements Delayed {
+
+    private final MonitoredTarget target;
+    private final long slotNanos;
+    private final long dueAtNanos;
+
+    ScheduledCheck(MonitoredTarget target, long slotNanos, long dueAtNanos) {
+        this.target = target;
+        this.slotNanos = slotNanos;
+        this.dueAtNanos = dueAtNanos;
+    }
+
+    MonitoredTarget getTarget() {
+        return target;
+    }
+
+    /** Un-jittered slot of this run; the next slot is exactly one interval later. */
+    long getSlotNanos() {
+        return slotNanos;
+    }
+
+    long getDueAtNanos() {
+        return dueAtNanos;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof ScheduledCheck check) {
+            return Long.compare(dueAtNanos, check.dueAtNanos);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.serverstatuschecker.persistence;
+
+import com.example.serverstatuschecker.config.ChangeOnlyProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Decides which probe results are stored when {@code persistence.change-only.enabled} is set:
+ * a result is written when its URL has no stored state yet, when availability or message differ
+ * from the last written row, or when the last row is older than
+ * {@code persistence.change-only.heartbeat}. Only persisted columns are compared: the status
+ * code is not stored, so a change in it alone would write a row identical to the previous one. Everything in between repeats a stored row, so the
+ * state at any instant is the latest row at or before it.
+ * <p>
+ * State is keyed by the URL exactly as it is stored, because that is what the point-in-time
+ * and history queries match on. It only advances through {@link #stored} once a write has
+ * committed; a result checked while an earlier one is still being written is compared with the
+ * last committed row, so at worst a duplicate is written, never a transition lost.
+ */
+@Component
+public class ChangeOnlyFilter {
+
+    private final ChangeOnlyProperties properties;
+    private final Cache<String, StoredState> lastStored;
+    private final Counter skipped;
+
+    public ChangeOnlyFilter(ChangeOnlyProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.lastStored = Caffeine.newBuilder().maximumSize(properties.getMaxTrackedUrls()).build();
+        this.skipped = Counter.builder("status.write.skipped").register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns whether {@code status} must be written. Does not change the tracked state.
+     */
+    public boolean shouldPersist(ServerStatus status) {
+        if (!properties.isEnabled() || status.getUrl() == null) {
+            return true;
+        }
+        StoredState candidate = StoredState.of(status);
+        StoredState current = lastStored.getIfPresent(status.getUrl());
+        boolean persist = current == null || !current.sameState(candidate)
+                || !candidate.storedAt.isBefore(current.storedAt.plus(properties.getHeartbeat()));
+        if (!persist) {
+            skipped.increment();
+        }
+        return persist;
+    }
+
+    /**
+     * Records {@code status} as the last row of its URL once its write has committed. A row
+     * committed after a newer one, as can happen with concurrent writers, is ignored.
+     */
+    public void stored(ServerStatus status) {
+        if (!properties.isEnabled() || status.getUrl() == null) {
+            return;
+        }
+        StoredState candidate = StoredState.of(status);
+        lastStored.asMap().merge(status.getUrl(), candidate,
+                (current, next) -> next.storedAt.isBefore(current.storedAt) ? current : next);
+    }
+
+    /**
+     * Forgets the state of the URL of {@code status} after its write failed, so the next result
+     * for it is written whatever it holds.
+     */
+    public void failed(ServerStatus status) {
+        if (status.getUrl() != null) {
+            lastStored.invalidate(status.getUrl());
+        }
+    }
+
+    private record StoredState(boolean available, String message, Instant storedAt) {
+
+        private static StoredState of(ServerStatus status) {
+            Instant checkedAt = status.getCheckedAt() != null ? status.getCheckedAt() : Instant.now();
+            return new StoredState(status.isAvailable(), status.getMessage(), checkedAt);
+        }
+
+        private boolean sameState(StoredState other) {
+            return available == other.available && Objects.equals(message, other.message);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.serverstatuschecker.persistence;
+
+import com.example.serverstatuschecker.cache.CommonCache;
+import com.example.serverstatuschecker.config.WriteBehindProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.repository.ServerStatusRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind stage for probe results: callers enqueue unsaved statuses and a single writer
+ * thread persists them in batches of up to {@code batch-size} rows or every
+ * {@code flush-interval-ms}. When the queue is full the caller waits up to
+ * {@code offer-timeout-ms} and then writes its row itself, in a transaction of its own.
+ * <p>
+ * A failed batch is retried {@code max-retries} times with doubling backoff and then written
+ * row by row, so only the rows that fail on their own are dropped. Each row carries callbacks
+ * run once it has committed or been dropped, so state derived from stored rows never runs ahead
+ * of the database.
+ */
+@Component
+@Slf4j
+public class StatusWriteBehind implements SmartLifecycle {
+
+    private static final int SHUTDOWN_PHASE = DEFAULT_PHASE - 4096;
+    private static final long JOIN_TIMEOUT_MS = 10_000;
+
+    private final ServerStatusRepository serverStatusRepository;
+    private final CommonCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizes;
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private boolean accepting = true;
+    private volatile boolean running;
+    private Thread writer;
+
+    public StatusWriteBehind(ServerStatusRepository serverStatusRepository, CommonCache cache,
+                             PlatformTransactionManager transactionManager, WriteBehindProperties properties,
+                             MeterRegistry registry) {
+        this.serverStatusRepository = serverStatusRepository;
+        this.cache = cache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSizes = DistributionSummary.builder("status.write.batch.size").register(registry);
+        Gauge.builder("status.write.queue.depth", queue, BlockingQueue::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a row. Once {@link #stop()} has begun, rows are rejected with
+     * {@link IllegalStateException} rather than queued behind a writer that is shutting down.
+     */
+    public void submit(ServerStatus status, Runnable onWritten, Runnable onFailed) {
+        Pending pending = new Pending(status, status.getId() == null, onWritten, onFailed);
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                onFailed.run();
+                throw new IllegalStateException("Запись статусов остановлена");
+            }
+            if (queue.offer(pending, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        log.warn("Очередь записи статусов переполнена, запись выполняется синхронно");
+        RuntimeException error = write(List.of(pending));
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        acceptLock.writeLock().lock();
+        try {
+            accepting = true;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "status-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting rows and lets the writer flush what is queued. Rows are only ever written
+     * by the writer while it is alive, so if it has not finished in time it is left to complete
+     * the flush on its own.
+     */
+    @Override
+    public void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        running = false;
+        if (writer == null) {
+            flushRemaining();
+            return;
+        }
+        try {
+            writer.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Запись статусов не завершилась за {} мс, в очереди осталось {}", JOIN_TIMEOUT_MS, queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                Pending first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long flushAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+                while (batch.size() < properties.getBatchSize() && System.nanoTime() < flushAt) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    if (batch.size() < properties.getBatchSize()) {
+                        Pending next = queue.poll(flushAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next != null) {
+                            batch.add(next);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            writeQuietly(batch);
+            batch = new ArrayList<>(properties.getBatchSize());
+        }
+        flushRemaining();
+    }
+
+    private void flushRemaining() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        while (queue.drainTo(batch, properties.getBatchSize()) > 0) {
+            writeQuietly(batch);
+            batch = new ArrayList<>(properties.getBatchSize());
+        }
+    }
+
+    private void writeQuietly(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить пакет из {} статусов", batch.size(), e);
+        }
+    }
+
+    /**
+     * Stores a batch, retrying it and then falling back to one row per transaction. Returns the
+     * error of the last row that was dropped, or null when every row was stored.
+     */
+    private RuntimeException write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        RuntimeException error = null;
+        long backoffMs = properties.getRetryBackoffMs();
+        for (int attempt = 0; attempt <= properties.getMaxRetries(); attempt++) {
+            if (attempt > 0) {
+                if (!sleep(backoffMs)) {
+                    break;
+                }
+                backoffMs *= 2;
+            }
+            error = tryStore(batch);
+            if (error == null) {
+                return null;
+            }
+        }
+        if (batch.size() == 1) {
+            drop(batch.get(0), error);
+            return error;
+        }
+        log.warn("Пакет из {} статусов не сохранён, статусы сохраняются по одному", batch.size(), error);
+        RuntimeException lastError = null;
+        for (Pending pending : batch) {
+            RuntimeException rowError = tryStore(List.of(pending));
+            if (rowError != null) {
+                drop(pending, rowError);
+                lastError = rowError;
+            }
+        }
+        return lastError;
+    }
+
+    private RuntimeException tryStore(List<Pending> rows) {
+        List<ServerStatus> statuses = rows.stream().map(Pending::status).toList();
+        List<ServerStatus> saved;
+        try {
+            saved = transactionTemplate.execute(tx -> serverStatusRepository.saveAll(statuses));
+        } catch (RuntimeException e) {
+            // The rolled-back insert left its sequence id behind; a retry must insert again, not merge.
+            rows.stream().filter(Pending::isNew).forEach(pending -> pending.status.setId(null));
+            return e;
+        }
+        if (saved != null) {
+            saved.forEach(cache::upsertServerStatus);
+        }
+        rows.forEach(pending -> pending.onWritten.run());
+        return null;
+    }
+
+    private void drop(Pending pending, RuntimeException error) {
+        log.error("Статус {} не сохранён и отброшен", pending.status.getUrl(), error);
+        pending.onFailed.run();
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Pending(ServerStatus status, boolean isNew, Runnable onWritten, Runnable onFailed) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.serverstatuschecker.probe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Carries cancellation back up a future chain. Cancelling a dependent {@link CompletableFuture}
+ * never reaches the stages it was built from, so a chain holding resources (a throttle permit,
+ * an HTTP exchange) tracks those stages here and binds its outcome: cancelling the outcome
+ * cancels every tracked stage, including stages tracked after the fact.
+ */
+final class Cancellation {
+
+    private final List<Future<?>> stages = new ArrayList<>();
+    private boolean cancelled;
+
+    <F extends Future<?>> F track(F stage) {
+        synchronized (this) {
+            if (!cancelled) {
+                stages.add(stage);
+                return stage;
+            }
+        }
+        stage.cancel(true);
+        return stage;
+    }
+
+    <T> CompletableFuture<T> bind(CompletableFuture<T> outcome) {
+        outcome.whenComplete((value, error) -> {
+            if (outcome.isCancelled()) {
+                cancel();
+            }
+        });
+        return outcome;
+    }
+
+    private void cancel() {
+        List<Future<?>> tracked;
+        synchronized (this) {
+            cancelled = true;
+            tracked = new ArrayList<>(stages);
+            stages.clear();
+        }
+        tracked.forEach(stage -> stage.cancel(true));
+    }
+}
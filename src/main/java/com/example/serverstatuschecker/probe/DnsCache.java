@@ -0,0 +1,201 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Host name resolution for probes. Lookups run on a small dedicated pool so a slow resolver
+ * never holds a probe worker; concurrent lookups of one host share a single resolver call, and
+ * results are kept for {@code probe.dns.positive-ttl}, failures for {@code probe.dns.negative-ttl}.
+ * <p>
+ * HttpClient resolves the host again itself when it connects, answered from the JDK address
+ * cache. A positive TTL longer than that cache ({@code networkaddress.cache.ttl}, 30 s by
+ * default) would let the JDK entry expire while ours is still fresh, and the connect would
+ * then block on the resolver after all, so the positive TTL is capped at the JDK one. The
+ * security property is left alone because it applies to every lookup in the process.
+ */
+@Component
+@Slf4j
+public class DnsCache implements MeterBinder {
+
+    @FunctionalInterface
+    interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private static final String JVM_TTL_PROPERTY = "networkaddress.cache.ttl";
+    private static final String JVM_TTL_SYSTEM_PROPERTY = "sun.net.inetaddr.ttl";
+    private static final long DEFAULT_JVM_TTL_SECONDS = 30;
+
+    private final Resolver resolver;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final ExecutorService executor;
+    private final Cache<String, Entry> entries;
+    private final SingleFlight<String, Entry> lookups = new SingleFlight<>("dns");
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Timer lookupTimer;
+
+    @Autowired
+    public DnsCache(ProbeProperties properties) {
+        this(properties, InetAddress::getAllByName);
+    }
+
+    DnsCache(ProbeProperties properties, Resolver resolver) {
+        ProbeProperties.Dns settings = properties.getDns();
+        this.resolver = resolver;
+        this.positiveTtlNanos = capPositiveTtl(settings.getPositiveTtl(), jvmPositiveTtlSeconds()).toNanos();
+        this.negativeTtlNanos = settings.getNegativeTtl().toNanos();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, settings.getResolverThreads()), resolverThreads());
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxHosts())
+                .expireAfter(new EntryExpiry())
+                .build();
+    }
+
+    /**
+     * Addresses of {@code host}; the future fails with {@link UnknownHostException} when the
+     * name does not resolve.
+     */
+    public CompletableFuture<InetAddress[]> resolve(String host) {
+        String key = host.toLowerCase(Locale.ROOT);
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null) {
+            (cached.failure == null ? hits : negativeHits).increment();
+            return cached.toFuture();
+        }
+        misses.increment();
+        return lookups.executeAsync(key, () -> CompletableFuture.supplyAsync(() -> lookup(key), executor))
+                .thenCompose(Entry::toFuture);
+    }
+
+    private Entry lookup(String host) {
+        long started = System.nanoTime();
+        Entry entry;
+        try {
+            entry = new Entry(resolver.resolve(host), null);
+        } catch (UnknownHostException e) {
+            log.debug("Имя хоста {} не разрешено: {}", host, e.getMessage());
+            entry = new Entry(null, e);
+        } finally {
+            Timer timer = lookupTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        entries.put(host, entry);
+        return entry;
+    }
+
+    /**
+     * {@code configured}, unless the JDK forgets successful lookups sooner; a negative JDK TTL
+     * means it never does.
+     */
+    static Duration capPositiveTtl(Duration configured, long jvmTtlSeconds) {
+        if (jvmTtlSeconds < 0 || configured.getSeconds() <= jvmTtlSeconds) {
+            return configured;
+        }
+        log.info("probe.dns.positive-ttl {} больше TTL кэша адресов JVM ({} с) и ограничен им",
+                configured, jvmTtlSeconds);
+        return Duration.ofSeconds(jvmTtlSeconds);
+    }
+
+    private static long jvmPositiveTtlSeconds() {
+        String value = Security.getProperty(JVM_TTL_PROPERTY);
+        if (value == null) {
+            value = System.getProperty(JVM_TTL_SYSTEM_PROPERTY);
+        }
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Некорректное значение {}: {}", JVM_TTL_PROPERTY, value);
+            }
+        }
+        return DEFAULT_JVM_TTL_SECONDS;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lookupTimer = Timer.builder("probe.dns.lookup").register(registry);
+        FunctionCounter.builder("probe.dns.cache", hits, LongAdder::sum).tag("result", "hit").register(registry);
+        FunctionCounter.builder("probe.dns.cache", negativeHits, LongAdder::sum)
+                .tag("result", "negative-hit").register(registry);
+        FunctionCounter.builder("probe.dns.cache", misses, LongAdder::sum).tag("result", "miss").register(registry);
+        Gauge.builder("probe.dns.cache.size", entries, Cache::estimatedSize).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory resolverThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dns-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final UnknownHostException failure;
+
+        private Entry(InetAddress[] addresses, UnknownHostException failure) {
+            this.addresses = addresses;
+            this.failure = failure;
+        }
+
+        private CompletableFuture<InetAddress[]> toFuture() {
+            return failure == null
+                    ? CompletableFuture.completedFuture(addresses)
+                    : CompletableFuture.failedFuture(failure);
+        }
+    }
+
+    private final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String host, Entry entry, long currentTime) {
+            return entry.failure == null ? positiveTtlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String host, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(host, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String host, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.example.serverstatuschecker.dto.HostHealth;
+import com.example.serverstatuschecker.timeseries.LatencyHistogram;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-host request timeouts and circuit breakers, keyed by URL authority.
+ * <p>
+ * The timeout of a host follows a percentile of its observed time to first byte, capped by
+ * {@code probe.read-timeout-ms}. A host that fails {@code probe.breaker.failure-threshold} times
+ * in a row without answering at all is short-circuited: callers get its last failure back
+ * without a request until the open period ends, then a single trial probe decides whether the
+ * circuit closes or stays open for twice as long. An HTTP error status counts as an answer.
+ */
+@Component
+@Slf4j
+public class HostGuard implements MeterBinder {
+
+    private final ProbeProperties.Adaptive adaptive;
+    private final ProbeProperties.Breaker breaker;
+    private final long maxTimeoutNanos;
+    private final LongSupplier clock;
+    private final Cache<String, HostState> hosts;
+    private final LongAdder shortCircuited = new LongAdder();
+
+    @Autowired
+    public HostGuard(ProbeProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    HostGuard(ProbeProperties properties, LongSupplier clock) {
+        this.adaptive = properties.getAdaptive();
+        this.breaker = properties.getBreaker();
+        this.maxTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getReadTimeoutMs());
+        this.clock = clock;
+        this.hosts = Caffeine.newBuilder()
+                .maximumSize(breaker.getMaxHosts())
+                .expireAfterAccess(breaker.getMaxOpenDuration().multipliedBy(2))
+                .build();
+    }
+
+    public Admission admit(String url) {
+        String host = UrlNormalizer.hostOf(url);
+        if (host == null) {
+            return new Admission(null, Duration.ofNanos(maxTimeoutNanos), false, null);
+        }
+        Admission admission = hosts.get(host, key -> new HostState()).admit(host, clock.getAsLong());
+        if (!admission.isAllowed()) {
+            shortCircuited.increment();
+        }
+        return admission;
+    }
+
+    public void record(Admission admission, ProbeResult result) {
+        if (admission.getHost() == null) {
+            return;
+        }
+        HostState state = hosts.getIfPresent(admission.getHost());
+        if (state != null) {
+            state.record(admission, result, clock.getAsLong());
+        }
+    }
+
+    public List<HostHealth> getHosts() {
+        long now = clock.getAsLong();
+        Instant wallNow = Instant.now();
+        List<HostHealth> health = new ArrayList<>();
+        hosts.asMap().forEach((host, state) -> health.add(state.snapshot(host, now, wallNow)));
+        health.sort(Comparator.comparing(HostHealth::getHost));
+        return health;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("probe.circuits.open", this, HostGuard::openCircuits).register(registry);
+        FunctionCounter.builder("probe.short.circuited", shortCircuited, LongAdder::sum).register(registry);
+    }
+
+    private long openCircuits() {
+        return hosts.asMap().values().stream().filter(HostState::isOpen).count();
+    }
+
+    /**
+     * Outcome of {@link #admit}: either a timeout to probe with, or the message to fail with
+     * straight away. A trial admission is the single probe allowed through an open circuit.
+     */
+    @Value
+    public static class Admission {
+        String host;
+        Duration timeout;
+        boolean trial;
+        String rejection;
+
+        public boolean isAllowed() {
+            return rejection == null;
+        }
+    }
+
+    private enum Circuit {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final class HostState {
+        private Circuit circuit = Circuit.CLOSED;
+        private int consecutiveFailures;
+        private long openNanos;
+        private long retryAt;
+        private long trialStartedAt;
+        private String lastFailure;
+        private long timeoutNanos = maxTimeoutNanos;
+        private LatencyHistogram current = new LatencyHistogram();
+        private LatencyHistogram previous = new LatencyHistogram();
+
+        synchronized Admission admit(String host, long now) {
+            if (circuit == Circuit.OPEN && now - retryAt >= 0
+                    || circuit == Circuit.HALF_OPEN && now - trialStartedAt > 2 * maxTimeoutNanos) {
+                circuit = Circuit.HALF_OPEN;
+                trialStartedAt = now;
+                return new Admission(host, Duration.ofNanos(maxTimeoutNanos), true, null);
+            }
+            if (circuit != Circuit.CLOSED) {
+                return new Admission(host, null, false,
+                        "Проверки хоста приостановлены после повторных сбоев: " + lastFailure);
+            }
+            return new Admission(host, Duration.ofNanos(timeoutNanos), false, null);
+        }
+
+        synchronized void record(Admission admission, ProbeResult result, long now) {
+            if (result.getStatusCode() != ProbeResult.NO_STATUS) {
+                if (circuit != Circuit.CLOSED) {
+                    log.info("Хост {} снова отвечает, проверки возобновлены", admission.getHost());
+                }
+                circuit = Circuit.CLOSED;
+                consecutiveFailures = 0;
+                openNanos = 0;
+                observe(result);
+                return;
+            }
+            lastFailure = result.getMessage();
+            consecutiveFailures++;
+            // A failure may be a timeout that was set too tight; back off until the next answer.
+            timeoutNanos = Math.min(maxTimeoutNanos, timeoutNanos * 2);
+            if (breaker.isEnabled() && (admission.isTrial()
+                    || circuit == Circuit.CLOSED && consecutiveFailures >= breaker.getFailureThreshold())) {
+                long base = breaker.getOpenDuration().toNanos();
+                openNanos = Math.min(breaker.getMaxOpenDuration().toNanos(), openNanos == 0 ? base : openNanos * 2);
+                retryAt = now + openNanos;
+                circuit = Circuit.OPEN;
+                log.warn("Хост {} недоступен ({} сбоев подряд), проверки приостановлены на {} с",
+                        admission.getHost(), consecutiveFailures, TimeUnit.NANOSECONDS.toSeconds(openNanos));
+            }
+        }
+
+        private void observe(ProbeResult result) {
+            if (!adaptive.isEnabled()) {
+                return;
+            }
+            ProbeTimings timings = result.getTimings();
+            long nanos = timings.getTtfbNanos() != null ? timings.getTtfbNanos() : timings.getTotalNanos();
+            current.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (current.getTotalCount() >= adaptive.getSampleWindow()) {
+                LatencyHistogram recycled = previous;
+                previous = current;
+                current = recycled;
+                current.reset();
+            }
+            if (samples() < adaptive.getMinSamples()) {
+                return;
+            }
+            LatencyHistogram window = previous.copy();
+            window.merge(current);
+            long observed = TimeUnit.MICROSECONDS.toNanos(window.valueAtPercentile(adaptive.getPercentile()));
+            long floor = TimeUnit.MILLISECONDS.toNanos(adaptive.getMinTimeoutMs());
+            timeoutNanos = Math.min(maxTimeoutNanos, Math.max(floor, (long) (observed * adaptive.getMultiplier())));
+        }
+
+        private long samples() {
+            return current.getTotalCount() + previous.getTotalCount();
+        }
+
+        synchronized boolean isOpen() {
+            return circuit != Circuit.CLOSED;
+        }
+
+        synchronized HostHealth snapshot(String host, long now, Instant wallNow) {
+            Instant retry = circuit == Circuit.OPEN ? wallNow.plusNanos(Math.max(0, retryAt - now)) : null;
+            return new HostHealth(host, circuit.name(), consecutiveFailures,
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos), samples(), retry, lastFailure);
+        }
+    }
+}
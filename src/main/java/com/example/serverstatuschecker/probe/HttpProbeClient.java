@@ -0,0 +1,182 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class HttpProbeClient implements ProbeClient {
+
+    private static final int HTTP_OK_MIN = 200;
+    private static final int HTTP_OK_MAX = 300;
+    private static final Duration MIN_REQUEST_TIMEOUT = Duration.ofMillis(1);
+
+    private final HttpClient probeHttpClient;
+    private final ProbeProperties properties;
+    private final DnsCache dnsCache;
+    private final Set<String> headRejectingHosts = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public CompletableFuture<ProbeResult> probe(String url, ProbeMethod method, Duration timeout) {
+        long start = System.nanoTime();
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(failure(url, e, start));
+        }
+        ProbeMethod effective = method != null ? method : properties.getDefaultMethod();
+        if (effective == ProbeMethod.HEAD && headRejectingHosts.contains(uri.getAuthority())) {
+            effective = ProbeMethod.GET;
+        }
+        ProbeMethod chosen = effective;
+        Duration requestTimeout = timeout != null ? timeout : Duration.ofMillis(properties.getReadTimeoutMs());
+        PhaseClock clock = new PhaseClock(start);
+        Cancellation cancellation = new Cancellation();
+        return cancellation.bind(resolve(uri, requestTimeout, clock)
+                .thenCompose(ignored -> {
+                    clock.requestStart = System.nanoTime();
+                    return send(url, uri, chosen, remaining(requestTimeout, clock.dnsNanos), clock, cancellation);
+                })
+                .exceptionally(error -> failure(url, error, clock)));
+    }
+
+    /**
+     * Resolves the host through the {@link DnsCache} and records how long the probe waited for
+     * it. The HttpClient resolves the name again when it connects, but that lookup hits the JVM
+     * address cache warmed by the resolver. The resolver call itself cannot be bounded, so the
+     * probe stops waiting for it after {@code timeout} and fails; the lookup still finishes and
+     * fills the cache for later probes.
+     */
+    private CompletableFuture<InetAddress[]> resolve(URI uri, Duration timeout, PhaseClock clock) {
+        String host = uri.getHost();
+        if (host == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long started = System.nanoTime();
+        return dnsCache.resolve(host)
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((addresses, error) -> clock.dnsNanos = System.nanoTime() - started);
+    }
+
+    /**
+     * What is left of the probe timeout once the lookup is done, so the whole probe stays within it.
+     */
+    private static Duration remaining(Duration timeout, long spentNanos) {
+        Duration left = timeout.minusNanos(spentNanos);
+        return left.compareTo(MIN_REQUEST_TIMEOUT) < 0 ? MIN_REQUEST_TIMEOUT : left;
+    }
+
+    /**
+     * Sends one request. The exchange is tracked so that cancelling the probe aborts it rather
+     * than leaving it to run until its timeout.
+     */
+    private CompletableFuture<ProbeResult> send(String url, URI uri, ProbeMethod method, Duration timeout,
+                                                PhaseClock clock, Cancellation cancellation) {
+        return cancellation.track(probeHttpClient.sendAsync(buildRequest(uri, method, timeout),
+                        HttpResponse.BodyHandlers.ofInputStream()))
+                .thenCompose(response -> {
+                    clock.headersAt = System.nanoTime();
+                    abort(response.body());
+                    int statusCode = response.statusCode();
+                    if (method.isRejectedBy(statusCode)) {
+                        if (method == ProbeMethod.HEAD && uri.getAuthority() != null) {
+                            headRejectingHosts.add(uri.getAuthority());
+                        }
+                        log.debug("{} отклонён сервером {} с кодом {}, повтор через GET", method, url, statusCode);
+                        clock.requestStart = System.nanoTime();
+                        return send(url, uri, ProbeMethod.GET, timeout, clock, cancellation);
+                    }
+                    return CompletableFuture.completedFuture(toResult(url, statusCode, clock));
+                });
+    }
+
+    private HttpRequest buildRequest(URI uri, ProbeMethod method, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(timeout);
+        switch (method) {
+            case HEAD:
+                return builder.method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+            case RANGE:
+                return builder.header("Range", "bytes=0-0").GET().build();
+            default:
+                return builder.GET().build();
+        }
+    }
+
+    private void abort(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            log.debug("Ошибка закрытия тела ответа", e);
+        }
+    }
+
+    private ProbeResult toResult(String url, int statusCode, PhaseClock clock) {
+        boolean available = statusCode >= HTTP_OK_MIN && statusCode < HTTP_OK_MAX;
+        String message = available ? "Сервер доступен" : "Сервер ответил с кодом: " + statusCode;
+        return new ProbeResult(url, available, statusCode, message, clock.finish());
+    }
+
+    private ProbeResult failure(String url, Throwable error, PhaseClock clock) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            log.debug("Проверка {} отменена", url);
+            return ProbeResult.failure(url, "Проверка отменена", clock.finish());
+        }
+        if (cause instanceof TimeoutException) {
+            log.warn("Истекло время разрешения имени хоста для URL: {}", url);
+            return ProbeResult.failure(url, "Истекло время разрешения имени хоста", clock.finish());
+        }
+        if (cause instanceof UnknownHostException) {
+            log.warn("Не удалось разрешить имя хоста для URL: {}", url);
+            return ProbeResult.failure(url, "Не удалось разрешить имя хоста: " + cause.getMessage(), clock.finish());
+        }
+        log.error("Ошибка проверки статуса сервера для URL: {}", url, cause);
+        return ProbeResult.failure(url, "Не удалось подключиться: " + cause.getMessage(), clock.finish());
+    }
+
+    private ProbeResult failure(String url, Throwable error, long start) {
+        return failure(url, error, new PhaseClock(start));
+    }
+
+    /**
+     * Phase timestamps of one probe. Each phase is written by the stage that completes it and
+     * read by a later stage of the same future chain, which orders the accesses.
+     */
+    private static final class PhaseClock {
+        private final long start;
+        private Long dnsNanos;
+        private long requestStart;
+        private long headersAt;
+
+        private PhaseClock(long start) {
+            this.start = start;
+        }
+
+        private ProbeTimings finish() {
+            Long ttfbNanos = headersAt != 0 ? headersAt - requestStart : null;
+            return new ProbeTimings(dnsNanos, null, null, ttfbNanos, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.example.serverstatuschecker.dto.TargetLatency;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rolling per-target latency distributions, keyed by normalized URL. Targets that have not been
+ * probed for two windows are dropped.
+ */
+@Component
+public class LatencyTracker {
+
+    private static final int IDLE_WINDOWS = 2;
+
+    private final int slots;
+    private final long slotNanos;
+    private final Cache<String, RollingLatency> targets;
+
+    public LatencyTracker(ProbeProperties properties) {
+        ProbeProperties.Latency settings = properties.getLatency();
+        this.slots = Math.max(1, settings.getWindowSlots());
+        this.slotNanos = settings.getSlotDuration().toNanos();
+        this.targets = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxTargets())
+                .expireAfterAccess(settings.getSlotDuration().multipliedBy((long) slots * IDLE_WINDOWS))
+                .build();
+    }
+
+    public void record(ProbeResult result) {
+        String url = UrlNormalizer.normalize(result.getUrl());
+        if (url != null) {
+            targets.get(url, key -> new RollingLatency(slots, slotNanos)).record(System.nanoTime(), result);
+        }
+    }
+
+    public List<TargetLatency> getLatencies(String url) {
+        long now = System.nanoTime();
+        if (url != null) {
+            String normalized = UrlNormalizer.normalize(url);
+            RollingLatency latency = targets.getIfPresent(normalized);
+            return latency == null ? List.of() : List.of(latency.snapshot(normalized, now));
+        }
+        List<TargetLatency> latencies = new ArrayList<>();
+        targets.asMap().forEach((target, latency) -> latencies.add(latency.snapshot(target, now)));
+        latencies.sort(Comparator.comparing(TargetLatency::getUrl));
+        return latencies;
+    }
+}
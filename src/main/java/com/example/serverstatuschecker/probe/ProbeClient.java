@@ -0,0 +1,23 @@
+package com.example.serverstatuschecker.probe;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface ProbeClient {
+
+    /**
+     * Starts a probe of {@code url} with the given method, or the configured default when
+     * {@code method} is null. The returned future never completes exceptionally:
+     * connection and protocol errors are reported as an unavailable {@link ProbeResult}.
+     * Cancelling it aborts the request.
+     */
+    default CompletableFuture<ProbeResult> probe(String url, ProbeMethod method) {
+        return probe(url, method, null);
+    }
+
+    /**
+     * Same as {@link #probe(String, ProbeMethod)}, but the request must be answered within
+     * {@code timeout}; null means the configured {@code probe.read-timeout-ms}.
+     */
+    CompletableFuture<ProbeResult> probe(String url, ProbeMethod method, Duration timeout);
+}
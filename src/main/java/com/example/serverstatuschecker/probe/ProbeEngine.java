@@ -0,0 +1,239 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.example.serverstatuschecker.dto.HostHealth;
+import com.example.serverstatuschecker.dto.SingleFlightStats;
+import com.example.serverstatuschecker.model.ServerStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProbeEngine {
+
+    private final ProbeClient probeClient;
+    private final ProbeProperties properties;
+    private final LatencyTracker latencyTracker;
+    private final ProbeMetrics probeMetrics;
+    private final HostGuard hostGuard;
+    private final ProbeThrottle throttle;
+    private final SingleFlight<String, ProbeResult> inFlightProbes = new SingleFlight<>("probe");
+
+    /**
+     * Starts a probe of {@code target}. Cancelling the returned future gives up on the probe:
+     * a queued probe leaves the throttle queue and a running one aborts its request, unless
+     * other callers still wait for the same probe.
+     */
+    public CompletableFuture<ServerStatus> probeAsync(ProbeTarget target) {
+        Cancellation cancellation = new Cancellation();
+        return cancellation.bind(cancellation.track(inFlightProbes.executeAsync(target.getKey(),
+                        () -> guardedProbe(target)))
+                .thenApply(ProbeEngine::toServerStatus));
+    }
+
+    private CompletableFuture<ProbeResult> guardedProbe(ProbeTarget target) {
+        HostGuard.Admission admission = hostGuard.admit(target.getUrl());
+        if (!admission.isAllowed()) {
+            ProbeResult rejected = ProbeResult.failure(target.getUrl(), admission.getRejection(), 0);
+            return CompletableFuture.completedFuture(rejected);
+        }
+        Cancellation cancellation = new Cancellation();
+        return cancellation.bind(cancellation.track(throttle.acquire(target.getUrl()))
+                .thenCompose(permit -> cancellation.track(
+                                probeClient.probe(target.getUrl(), target.getMethod(), admission.getTimeout()))
+                        .whenComplete((result, error) -> permit.release()))
+                .thenApply(result -> {
+                    hostGuard.record(admission, result);
+                    latencyTracker.record(result);
+                    probeMetrics.record(result);
+                    return result;
+                })
+                .exceptionally(error -> refused(target.getUrl(), rootCause(error))));
+    }
+
+    /**
+     * A probe our own throttle refused was never sent, so it says nothing about the target.
+     */
+    private static ProbeResult refused(String url, Throwable cause) {
+        if (cause instanceof RejectedExecutionException) {
+            return ProbeResult.notProbed(url, "Проверка не выполнена: " + cause.getMessage());
+        }
+        return ProbeResult.failure(url, "Проверка отклонена: " + cause.getMessage(), 0);
+    }
+
+    public SingleFlightStats getCoalescingStats() {
+        return inFlightProbes.stats();
+    }
+
+    public List<HostHealth> getHostHealth() {
+        return hostGuard.getHosts();
+    }
+
+    /**
+     * Probes one target and waits for it no longer than {@code probe.bulk.deadline-ms}, the same
+     * deadline a bulk request gets; a probe still queued or running by then is cancelled and
+     * reported as not probed.
+     */
+    public ServerStatus probe(ProbeTarget target) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBulk().getDeadlineMs());
+        return await(probeAsync(target), target.getUrl(), deadline);
+    }
+
+    /**
+     * Probes all targets in parallel, at most {@code probe.bulk.max-concurrency} of them at a
+     * time, taken from each host in turn; {@link ProbeThrottle} still decides when each may start.
+     * Results keep the order of {@code targets}. Probes still running when
+     * {@code probe.bulk.deadline-ms} expires are cancelled, which returns their throttle permits;
+     * they and the probes never started are reported as not probed.
+     */
+    public List<ServerStatus> probeAll(List<ProbeTarget> targets) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBulk().getDeadlineMs());
+        BulkProbe bulk = new BulkProbe(targets, Math.max(1, properties.getBulk().getMaxConcurrency()), deadline);
+        bulk.launch();
+
+        List<ServerStatus> results = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            results.add(await(bulk.results.get(i), targets.get(i).getUrl(), deadline));
+        }
+        return results;
+    }
+
+    private ServerStatus await(CompletableFuture<ServerStatus> future, String url, long deadline) {
+        try {
+            return future.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return notProbed(url);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return notProbed(url);
+        } catch (ExecutionException e) {
+            log.error("Ошибка проверки статуса сервера для URL: {}", url, e.getCause());
+            return toServerStatus(ProbeResult.failure(url,
+                    "Не удалось подключиться: " + e.getCause().getMessage(), 0));
+        }
+    }
+
+    static ServerStatus toServerStatus(ProbeResult result) {
+        ServerStatus response = new ServerStatus();
+        response.setUrl(result.getUrl());
+        response.setIsAvailable(result.isAvailable());
+        response.setMessage(result.getMessage());
+        response.setCheckedAt(Instant.now());
+        response.setStatusCode(result.getStatusCode() >= 0 ? result.getStatusCode() : null);
+        response.setNotProbed(!result.isProbed());
+        response.setLatencyNanos(result.getDurationNanos());
+        response.setTimings(result.getTimings());
+        return response;
+    }
+
+    private static ServerStatus notProbed(String url) {
+        return toServerStatus(ProbeResult.notProbed(url, "Проверка не завершена до истечения срока запроса"));
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * The targets of one {@link #probeAll} call. Targets are queued per host and started one
+     * host at a time in turn, so a host at the head of the list cannot fill the request's share
+     * while it waits for its own throttle. Nothing new starts after the deadline.
+     */
+    private final class BulkProbe {
+        private final List<ProbeTarget> targets;
+        private final List<CompletableFuture<ServerStatus>> results;
+        private final ArrayDeque<ArrayDeque<Integer>> hosts = new ArrayDeque<>();
+        private final int maxConcurrency;
+        private final long deadline;
+        private int running;
+        private boolean launching;
+
+        private BulkProbe(List<ProbeTarget> targets, int maxConcurrency, long deadline) {
+            this.targets = targets;
+            this.results = new ArrayList<>(targets.size());
+            this.maxConcurrency = maxConcurrency;
+            this.deadline = deadline;
+            Map<String, ArrayDeque<Integer>> byHost = new LinkedHashMap<>();
+            for (int i = 0; i < targets.size(); i++) {
+                String host = UrlNormalizer.hostOf(targets.get(i).getUrl());
+                byHost.computeIfAbsent(host != null ? host : "", key -> new ArrayDeque<>()).addLast(i);
+                results.add(new CompletableFuture<>());
+            }
+            hosts.addAll(byHost.values());
+        }
+
+        /**
+         * Starts targets while slots are free. A probe completing during the launch only frees
+         * its slot, and the running launch picks it up, so completions never recurse.
+         */
+        private void launch() {
+            synchronized (this) {
+                if (launching) {
+                    return;
+                }
+                launching = true;
+            }
+            List<Integer> next;
+            while (!(next = take()).isEmpty()) {
+                next.forEach(this::start);
+            }
+        }
+
+        private synchronized List<Integer> take() {
+            List<Integer> next = new ArrayList<>();
+            while (running < maxConcurrency && !hosts.isEmpty() && remainingNanos(deadline) > 0) {
+                ArrayDeque<Integer> queue = hosts.pollFirst();
+                int index = queue.pollFirst();
+                if (!queue.isEmpty()) {
+                    hosts.addLast(queue);
+                }
+                if (!results.get(index).isDone()) {
+                    running++;
+                    next.add(index);
+                }
+            }
+            if (next.isEmpty()) {
+                launching = false;
+            }
+            return next;
+        }
+
+        private void start(int index) {
+            CompletableFuture<ServerStatus> result = results.get(index);
+            CompletableFuture<ServerStatus> probe = probeAsync(targets.get(index));
+            result.whenComplete((status, error) -> probe.cancel(true));
+            probe.whenComplete((status, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(status);
+                }
+                synchronized (this) {
+                    running--;
+                }
+                launch();
+            });
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.serverstatuschecker.probe;
+
+public enum ProbeMethod {
+    /** HEAD request, no body is transferred. */
+    HEAD,
+    /** GET limited to the first byte of the body with a Range header. */
+    RANGE,
+    /** GET that is aborted as soon as the response headers arrive. */
+    GET;
+
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int NOT_IMPLEMENTED = 501;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
+    boolean isRejectedBy(int statusCode) {
+        switch (this) {
+            case HEAD:
+                return statusCode == METHOD_NOT_ALLOWED || statusCode == NOT_IMPLEMENTED;
+            case RANGE:
+                return statusCode == RANGE_NOT_SATISFIABLE;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probe timers tagged by target host and outcome. Hosts come from caller-supplied URLs, so only
+ * the first {@code probe.metrics.max-targets} hosts get their own tag; later hosts are recorded
+ * under {@code other}. Timers are cached so the hot path does not rebuild meter ids.
+ */
+@Component
+public class ProbeMetrics {
+
+    private static final String UNKNOWN_TARGET = "unknown";
+    private static final String OTHER_TARGET = "other";
+
+    private final MeterRegistry registry;
+    private final int maxTargets;
+    private final Set<String> targets = ConcurrentHashMap.newKeySet();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ProbeMetrics(MeterRegistry registry, ProbeProperties properties) {
+        this.registry = registry;
+        this.maxTargets = properties.getMetrics().getMaxTargets();
+    }
+
+    public void record(ProbeResult result) {
+        String target = targetOf(result.getUrl());
+        String outcome = outcomeOf(result);
+        ProbeTimings timings = result.getTimings();
+        timer("probe.duration", target, outcome).record(timings.getTotalNanos(), TimeUnit.NANOSECONDS);
+        if (timings.getTtfbNanos() != null) {
+            timer("probe.ttfb", target, outcome).record(timings.getTtfbNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (timings.getDnsNanos() != null) {
+            timer("probe.dns", target, outcome).record(timings.getDnsNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String target, String outcome) {
+        return timers.computeIfAbsent(name + ' ' + target + ' ' + outcome, key -> Timer.builder(name)
+                .tags("target", target, "outcome", outcome)
+                .register(registry));
+    }
+
+    private static String outcomeOf(ProbeResult result) {
+        if (result.isAvailable()) {
+            return "up";
+        }
+        return result.getStatusCode() != ProbeResult.NO_STATUS ? "down" : "error";
+    }
+
+    private String targetOf(String url) {
+        String host = UrlNormalizer.hostOf(url);
+        if (host == null) {
+            return UNKNOWN_TARGET;
+        }
+        if (targets.contains(host)) {
+            return host;
+        }
+        synchronized (targets) {
+            if (targets.size() < maxTargets) {
+                targets.add(host);
+                return host;
+            }
+        }
+        return OTHER_TARGET;
+    }
+}
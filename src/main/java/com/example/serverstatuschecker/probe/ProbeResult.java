@@ -0,0 +1,36 @@
+package com.example.serverstatuschecker.probe;
+
+import lombok.Value;
+
+@Value
+public class ProbeResult {
+    public static final int NO_STATUS = -1;
+    /** Status of a probe that was never sent, so it says nothing about the target. */
+    public static final int NOT_PROBED = -2;
+
+    String url;
+    boolean available;
+    int statusCode;
+    String message;
+    ProbeTimings timings;
+
+    public long getDurationNanos() {
+        return timings.getTotalNanos();
+    }
+
+    public static ProbeResult failure(String url, String message, long durationNanos) {
+        return failure(url, message, ProbeTimings.total(durationNanos));
+    }
+
+    public boolean isProbed() {
+        return statusCode != NOT_PROBED;
+    }
+
+    public static ProbeResult notProbed(String url, String message) {
+        return new ProbeResult(url, false, NOT_PROBED, message, ProbeTimings.total(0));
+    }
+
+    public static ProbeResult failure(String url, String message, ProbeTimings timings) {
+        return new ProbeResult(url, false, NO_STATUS, message, timings);
+    }
+}
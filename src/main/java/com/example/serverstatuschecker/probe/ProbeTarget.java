@@ -0,0 +1,17 @@
+package com.example.serverstatuschecker.probe;
+
+import lombok.Value;
+
+@Value
+public class ProbeTarget {
+    String url;
+    ProbeMethod method;
+
+    /**
+     * Identifies probes that are interchangeable: same method and same normalized URL. A target
+     * without a method uses whatever default applies, so it gets a key of its own.
+     */
+    public String getKey() {
+        return (method != null ? method.name() : "DEFAULT") + " " + UrlNormalizer.normalize(url);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission of outbound probes: at most {@code probe.throttle.max-in-flight} at once overall,
+ * {@code probe.throttle.host-max-in-flight} per host, and per host a token bucket refilled at
+ * {@code probe.throttle.host-rate} per second up to {@code probe.throttle.host-burst}.
+ * <p>
+ * Waiting probes are queued per host and hosts are served round-robin, so a host that is out
+ * of permits or tokens only delays its own probes. Nothing blocks: {@link #acquire} returns a
+ * future completed when the probe may start, and a timer thread wakes the queue when tokens
+ * are due.
+ */
+@Component
+public class ProbeThrottle implements MeterBinder {
+
+    private static final long SWEEP_INTERVAL_SECONDS = 60;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final ProbeProperties.Throttle settings;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService timer;
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final ArrayDeque<HostQueue> ready = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+    private int inFlight;
+    private int queued;
+    private long wakeAt = Long.MAX_VALUE;
+    private ScheduledFuture<?> wakeUp;
+
+    @Autowired
+    public ProbeThrottle(ProbeProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ProbeThrottle(ProbeProperties properties, LongSupplier clock) {
+        this.settings = properties.getThrottle();
+        this.clock = clock;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "probe-throttle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Completes with a permit once a probe of {@code url} may start, or fails with
+     * {@link RejectedExecutionException} when its host already has
+     * {@code probe.throttle.host-max-queued} probes waiting. The permit must be released when
+     * the probe finishes. Cancelling the future before it completes withdraws the probe from
+     * the queue.
+     */
+    public CompletableFuture<Permit> acquire(String url) {
+        String host = UrlNormalizer.hostOf(url);
+        CompletableFuture<Permit> waiter = new CompletableFuture<>();
+        List<Grant> grants;
+        HostQueue queue;
+        synchronized (this) {
+            queue = hosts.computeIfAbsent(host != null ? host : "", HostQueue::new);
+            if (queue.waiters.size() >= settings.getHostMaxQueued()) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Очередь проверок хоста " + queue.host + " переполнена"));
+            }
+            if (queue.waiters.isEmpty()) {
+                ready.addLast(queue);
+            }
+            queue.waiters.addLast(waiter);
+            queued++;
+            grants = dispatch();
+        }
+        complete(grants);
+        waiter.whenComplete((permit, error) -> {
+            if (waiter.isCancelled()) {
+                withdraw(queue, waiter);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Removes a cancelled waiter. One that was already granted is not queued any more, and
+     * {@link #complete} gives its permit back.
+     */
+    private synchronized void withdraw(HostQueue queue, CompletableFuture<Permit> waiter) {
+        if (queue.waiters.remove(waiter)) {
+            queued--;
+            if (queue.waiters.isEmpty()) {
+                ready.remove(queue);
+            }
+        }
+    }
+
+    private void release(HostQueue queue) {
+        List<Grant> grants;
+        synchronized (this) {
+            inFlight--;
+            queue.inFlight--;
+            grants = dispatch();
+        }
+        complete(grants);
+    }
+
+    private void wake() {
+        List<Grant> grants;
+        synchronized (this) {
+            wakeAt = Long.MAX_VALUE;
+            wakeUp = null;
+            grants = dispatch();
+        }
+        complete(grants);
+    }
+
+    /**
+     * Starts as many queued probes as the limits allow, taking one probe per host in turn.
+     * Returns the grants so their futures are completed outside the lock.
+     */
+    private List<Grant> dispatch() {
+        long now = clock.getAsLong();
+        List<Grant> grants = new ArrayList<>();
+        long nextTokenAt = Long.MAX_VALUE;
+        boolean progress = true;
+        while (progress && inFlight < settings.getMaxInFlight() && !ready.isEmpty()) {
+            progress = false;
+            for (int i = ready.size(); i > 0 && inFlight < settings.getMaxInFlight(); i--) {
+                HostQueue queue = ready.pollFirst();
+                if (queue.inFlight < settings.getHostMaxInFlight()) {
+                    long tokenAt = queue.takeToken(now);
+                    if (tokenAt <= now) {
+                        queue.inFlight++;
+                        inFlight++;
+                        queued--;
+                        grants.add(new Grant(queue.waiters.pollFirst(), new Permit(queue)));
+                        progress = true;
+                    } else {
+                        nextTokenAt = Math.min(nextTokenAt, tokenAt);
+                    }
+                }
+                if (!queue.waiters.isEmpty()) {
+                    ready.addLast(queue);
+                }
+            }
+        }
+        if (nextTokenAt != Long.MAX_VALUE && nextTokenAt < wakeAt) {
+            if (wakeUp != null) {
+                wakeUp.cancel(false);
+            }
+            wakeAt = nextTokenAt;
+            wakeUp = timer.schedule(this::wake, nextTokenAt - now, TimeUnit.NANOSECONDS);
+        }
+        return grants;
+    }
+
+    private static void complete(List<Grant> grants) {
+        for (Grant grant : grants) {
+            if (!grant.waiter.complete(grant.permit)) {
+                grant.permit.release();
+            }
+        }
+    }
+
+    /**
+     * Forgets idle hosts whose bucket has refilled, since a new queue starts in the same state.
+     */
+    private synchronized void sweep() {
+        long now = clock.getAsLong();
+        hosts.values().removeIf(queue -> queue.inFlight == 0 && queue.waiters.isEmpty() && queue.isFull(now));
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("probe.throttle.in.flight", this, ProbeThrottle::getInFlight).register(registry);
+        Gauge.builder("probe.throttle.queued", this, ProbeThrottle::getQueued).register(registry);
+        FunctionCounter.builder("probe.throttle.rejected", rejected, LongAdder::sum).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    public final class Permit {
+        private final HostQueue queue;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostQueue queue) {
+            this.queue = queue;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                ProbeThrottle.this.release(queue);
+            }
+        }
+    }
+
+    private record Grant(CompletableFuture<Permit> waiter, Permit permit) {
+    }
+
+    private final class HostQueue {
+        private final String host;
+        private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double tokens = settings.getHostBurst();
+        private long refilledAt = clock.getAsLong();
+
+        private HostQueue(String host) {
+            this.host = host;
+        }
+
+        /**
+         * Takes a token and returns {@code now}, or returns when the next token is due without
+         * taking one. A non-positive rate disables the bucket.
+         */
+        private long takeToken(long now) {
+            if (settings.getHostRate() <= 0) {
+                return now;
+            }
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return now;
+            }
+            return now + (long) Math.ceil((1 - tokens) / settings.getHostRate() * NANOS_PER_SECOND);
+        }
+
+        private boolean isFull(long now) {
+            if (settings.getHostRate() <= 0) {
+                return true;
+            }
+            refill(now);
+            return tokens >= settings.getHostBurst();
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(settings.getHostBurst(),
+                    tokens + (now - refilledAt) / NANOS_PER_SECOND * settings.getHostRate());
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.serverstatuschecker.probe;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Phase durations of one probe in nanoseconds. {@code ttfbNanos} runs from sending the request
+ * to receiving the response headers. The JDK HttpClient pools connections and does not report
+ * when the TCP and TLS handshakes finish, so connect and TLS time are part of the TTFB of the
+ * first request on a connection and are left null here. Null also means a phase was never reached.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProbeTimings {
+    Long dnsNanos;
+    Long connectNanos;
+    Long tlsNanos;
+    Long ttfbNanos;
+    long totalNanos;
+
+    public static ProbeTimings total(long totalNanos) {
+        return new ProbeTimings(null, null, null, null, totalNanos);
+    }
+}
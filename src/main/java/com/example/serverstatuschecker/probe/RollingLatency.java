@@ -0,0 +1,94 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.dto.LatencySummary;
+import com.example.serverstatuschecker.dto.TargetLatency;
+import com.example.serverstatuschecker.timeseries.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distributions of one target over a sliding window made of {@code slots} fixed slots;
+ * a slot is cleared when the clock moves past it, so memory stays constant per target.
+ */
+class RollingLatency {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double P50 = 50;
+    private static final double P90 = 90;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+    private static final double P100 = 100;
+
+    private final long slotNanos;
+    private final Slot[] slots;
+
+    RollingLatency(int slots, long slotNanos) {
+        this.slotNanos = slotNanos;
+        this.slots = new Slot[slots];
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Slot();
+        }
+    }
+
+    synchronized void record(long nowNanos, ProbeResult result) {
+        long epoch = nowNanos / slotNanos;
+        Slot slot = slots[(int) Math.floorMod(epoch, (long) slots.length)];
+        if (slot.epoch != epoch) {
+            slot.reset(epoch);
+        }
+        ProbeTimings timings = result.getTimings();
+        slot.total.record(TimeUnit.NANOSECONDS.toMicros(timings.getTotalNanos()));
+        if (timings.getTtfbNanos() != null) {
+            slot.ttfb.record(TimeUnit.NANOSECONDS.toMicros(timings.getTtfbNanos()));
+        }
+        if (timings.getDnsNanos() != null) {
+            slot.dns.record(TimeUnit.NANOSECONDS.toMicros(timings.getDnsNanos()));
+        }
+        if (!result.isAvailable()) {
+            slot.failures++;
+        }
+    }
+
+    synchronized TargetLatency snapshot(String url, long nowNanos) {
+        long epoch = nowNanos / slotNanos;
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram ttfb = new LatencyHistogram();
+        LatencyHistogram dns = new LatencyHistogram();
+        long failures = 0;
+        for (Slot slot : slots) {
+            if (slot.epoch > epoch - slots.length) {
+                total.merge(slot.total);
+                ttfb.merge(slot.ttfb);
+                dns.merge(slot.dns);
+                failures += slot.failures;
+            }
+        }
+        return new TargetLatency(url, TimeUnit.NANOSECONDS.toSeconds(slotNanos * slots.length),
+                total.getTotalCount(), failures, summarize(total), summarize(ttfb), summarize(dns));
+    }
+
+    private static LatencySummary summarize(LatencyHistogram histogram) {
+        return new LatencySummary(histogram.getTotalCount(), toMillis(histogram, P50), toMillis(histogram, P90),
+                toMillis(histogram, P99), toMillis(histogram, P999), toMillis(histogram, P100));
+    }
+
+    private static double toMillis(LatencyHistogram histogram, double percentile) {
+        return TimeUnit.MICROSECONDS.toNanos(histogram.valueAtPercentile(percentile)) / NANOS_PER_MILLI;
+    }
+
+    private static final class Slot {
+        private long epoch = Long.MIN_VALUE;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram ttfb = new LatencyHistogram();
+        private final LatencyHistogram dns = new LatencyHistogram();
+        private long failures;
+
+        private void reset(long newEpoch) {
+            epoch = newEpoch;
+            total.reset();
+            ttfb.reset();
+            dns.reset();
+            failures = 0;
+        }
+    }
+}
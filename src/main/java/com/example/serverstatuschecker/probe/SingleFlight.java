@@ -0,0 +1,132 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.dto.SingleFlightStats;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, callers that
+ * arrive while it is in flight share its result (or failure) instead of starting their own.
+ * <p>
+ * Each asynchronous caller gets its own future. Cancelling it detaches only that caller; the
+ * shared call is cancelled once every caller waiting on it has given up.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        Flight<V> mine = new Flight<>();
+        Flight<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return join(existing.result);
+        }
+        started.increment();
+        try {
+            V value = call.get();
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<V> created = new Flight<>();
+        Flight<V> flight = inFlight.compute(key, (k, current) -> {
+            if (current == null) {
+                return created;
+            }
+            current.callers++;
+            return current;
+        });
+        if (flight != created) {
+            coalesced.increment();
+            return view(key, flight);
+        }
+        started.increment();
+        try {
+            CompletableFuture<V> pending = call.get();
+            flight.call = pending;
+            pending.whenComplete((value, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.result.completeExceptionally(error);
+                } else {
+                    flight.result.complete(value);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+        }
+        return view(key, flight);
+    }
+
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(name, started.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    private CompletableFuture<V> view(K key, Flight<V> flight) {
+        CompletableFuture<V> view = flight.result.copy();
+        view.whenComplete((value, error) -> {
+            if (view.isCancelled()) {
+                leave(key, flight);
+            }
+        });
+        return view;
+    }
+
+    /**
+     * Drops one caller of {@code flight}; the last one to leave cancels the call. The count is
+     * only changed inside the map's atomic compute, so a caller cannot join a flight that is
+     * being abandoned.
+     */
+    private void leave(K key, Flight<V> flight) {
+        boolean[] abandoned = new boolean[1];
+        inFlight.computeIfPresent(key, (k, current) -> {
+            if (current != flight) {
+                return current;
+            }
+            abandoned[0] = --current.callers == 0;
+            return abandoned[0] ? null : current;
+        });
+        CompletableFuture<V> call = flight.call;
+        if (abandoned[0] && call != null) {
+            call.cancel(true);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile CompletableFuture<V> call;
+        private int callers = 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.serverstatuschecker.probe;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+public final class UrlNormalizer {
+
+    private static final int HTTP_PORT = 80;
+    private static final int HTTPS_PORT = 443;
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * Canonical form of a probe URL: lower-case scheme and host, no default port,
+     * "/" for an empty path and no fragment. Unparseable input is returned trimmed.
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == HTTP_PORT) || ("https".equals(scheme) && port == HTTPS_PORT)) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            StringBuilder normalized = new StringBuilder(trimmed.length())
+                    .append(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                normalized.append(':').append(port);
+            }
+            normalized.append(path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    /**
+     * Lower-case authority (host and explicit port) of {@code url}, or null when it has none.
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            String authority = new URI(url.trim()).getAuthority();
+            return authority != null ? authority.toLowerCase(Locale.ROOT) : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+}
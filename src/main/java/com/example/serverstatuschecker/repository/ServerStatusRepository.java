@@ -1,13 +1,35 @@
 package com.example.serverstatuschecker.repository;
 
 import com.example.serverstatuschecker.model.ServerStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ServerStatusRepository extends JpaRepository<ServerStatus, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ServerStatusRepository extends JpaRepository<ServerStatus, Long>,
+        JpaSpecificationExecutor<ServerStatus> {
     @Query("SELECT s FROM ServerStatus s JOIN s.server srv WHERE srv.name = :serverName")
     List<ServerStatus> findByServerName(@Param("serverName") String serverName);
-}
\ No newline at end of file
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM ServerStatus s ORDER BY s.id")
+    Stream<ServerStatus> streamAll();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM ServerStatus s JOIN s.server srv WHERE srv.name = :serverName ORDER BY s.id")
+    Stream<ServerStatus> streamByServerName(@Param("serverName") String serverName);
+
+    Optional<ServerStatus> findFirstByUrlAndCheckedAtLessThanEqualOrderByCheckedAtDescIdDesc(String url, Instant at);
+
+    Optional<ServerStatus> findFirstByUrlAndCheckedAtBeforeOrderByCheckedAtDescIdDesc(String url, Instant at);
+}
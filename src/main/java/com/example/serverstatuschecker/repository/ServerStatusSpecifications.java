@@ -0,0 +1,37 @@
+package com.example.serverstatuschecker.repository;
+
+import com.example.serverstatuschecker.dto.ServerStatusFilter;
+import com.example.serverstatuschecker.model.ServerStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ServerStatusSpecifications {
+
+    private ServerStatusSpecifications() {
+    }
+
+    public static Specification<ServerStatus> matching(ServerStatusFilter filter, Long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (afterId != null) {
+                predicates.add(cb.greaterThan(root.get("id"), afterId));
+            }
+            if (filter.getServerName() != null) {
+                predicates.add(cb.equal(root.join("server").get("name"), filter.getServerName()));
+            }
+            if (filter.getUrl() != null) {
+                predicates.add(cb.equal(root.get("url"), filter.getUrl()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("checkedAt"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("checkedAt"), filter.getTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.serverstatuschecker.service;
 
 import com.example.serverstatuschecker.cache.CommonCache;
-import com.example.serverstatuschecker.service.RequestCounterService;
+import com.example.serverstatuschecker.dto.TaggedList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 @Slf4j
@@ -17,38 +22,72 @@ public abstract class BaseService {
     protected final CommonCache cache;
 
     @Transactional
-    protected <T> T executeWithCache(Long id, String cacheKey, Supplier<T> dbSupplier, String logMessage) {
+    protected <K, T> T executeWithCache(K key, Function<K, T> cacheLookup, Consumer<T> cacheStore,
+                                        Supplier<T> dbSupplier, String logMessage) {
         counterService.increment();
-        T cachedEntity = (T) cache.getById(id, cacheKey);
+        T cachedEntity = key != null ? cacheLookup.apply(key) : null;
         if (cachedEntity != null) {
-            log.info(logMessage, id);
+            log.info(logMessage, key);
             return cachedEntity;
         }
         T entity = dbSupplier.get();
-        cache.put(entity, cacheKey);
+        cacheStore.accept(entity);
         return entity;
     }
 
     @Transactional
-    protected <T> List<T> executeWithCacheForList(String cacheKey, Supplier<List<T>> dbSupplier, String logMessage) {
+    protected <T> T executeWithCacheUpdate(Supplier<T> dbOperation, Consumer<T> cacheUpdate) {
         counterService.increment();
-        List<T> cachedEntities = (List<T>) cache.getAll(cacheKey);
+        T entity = dbOperation.get();
+        cacheUpdate.accept(entity);
+        return entity;
+    }
+
+    /**
+     * Serves a cached list or reads it from the database. The cache version is taken before the
+     * query, so the cache can tell whether a write landed while the list was being read.
+     */
+    @Transactional
+    protected <T> List<T> executeWithCacheForList(Supplier<List<T>> cacheLookup, LongSupplier cacheVersion,
+                                                  ObjLongConsumer<List<T>> cacheStore,
+                                                  Supplier<List<T>> dbSupplier, String logMessage) {
+        counterService.increment();
+        List<T> cachedEntities = cacheLookup.get();
         if (cachedEntities != null) {
             log.info(logMessage);
             return cachedEntities;
         }
+        long loadVersion = cacheVersion.getAsLong();
         List<T> entities = dbSupplier.get();
-        cache.putAll(entities, cacheKey);
+        cacheStore.accept(entities, loadVersion);
         return entities;
     }
 
+    /**
+     * Conditional read of a cached list: when the tag of the cached version satisfies
+     * {@code notModified} only the tag is returned, otherwise the list is read through
+     * {@code loader} and tagged with the version it was served from. Either way the request is
+     * counted once. Deliberately not transactional, so an unchanged list costs no connection.
+     */
+    protected <T> TaggedList<T> executeWithTagForList(Supplier<String> currentTag, Predicate<String> notModified,
+                                                      Supplier<List<T>> loader, Function<List<T>, String> tagOf) {
+        String tag = currentTag.get();
+        if (tag != null && notModified.test(tag)) {
+            counterService.increment();
+            return TaggedList.notModified(tag);
+        }
+        List<T> items = loader.get();
+        return new TaggedList<>(items, tagOf.apply(items));
+    }
+
     @Transactional
-    protected void executeWithCacheClear(String cacheKey, Runnable dbOperation, String logMessage, Long id) {
+    protected <K> void executeWithCacheClear(K key, Function<K, ?> cacheLookup, Runnable dbOperation,
+                                             Runnable cacheClear, String logMessage) {
         counterService.increment();
-        if (cache.getById(id, cacheKey) != null) {
-            log.info(logMessage, id);
+        if (cacheLookup.apply(key) != null) {
+            log.info(logMessage, key);
         }
         dbOperation.run();
-        cache.clearCache(cacheKey);
+        cacheClear.run();
     }
-}
\ No newline at end of file
+}
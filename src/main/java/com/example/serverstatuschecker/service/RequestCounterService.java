@@ -1,6 +1,7 @@
 package com.example.serverstatuschecker.service;
 
 import com.example.serverstatuschecker.counter.RequestCounter;
+import com.example.serverstatuschecker.dto.RequestRates;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,7 +21,16 @@ public class RequestCounterService {
         return counter.getCount();
     }
 
-    public void reset() {
-        counter.reset();
+    public long getTotal() {
+        return counter.getTotal();
     }
-}
\ No newline at end of file
+
+    public RequestRates getRates() {
+        return new RequestRates(counter.getCount(), counter.getResetAt(), counter.getTotal(),
+                counter.getOneMinuteRate(), counter.getFiveMinuteRate(), counter.getFifteenMinuteRate());
+    }
+
+    public long reset() {
+        return counter.reset();
+    }
+}
@@ -1,48 +1,69 @@
 package com.example.serverstatuschecker.service;
 
 import com.example.serverstatuschecker.cache.CommonCache;
+import com.example.serverstatuschecker.dto.TaggedList;
+import com.example.serverstatuschecker.dto.UptimeBucket;
+import com.example.serverstatuschecker.dto.UptimeReport;
 import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.monitoring.MonitoringScheduler;
 import com.example.serverstatuschecker.repository.ServerRepository;
-import com.example.serverstatuschecker.repository.ServerStatusRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.serverstatuschecker.timeseries.LatencyHistogram;
+import com.example.serverstatuschecker.timeseries.Resolution;
+import com.example.serverstatuschecker.timeseries.RollupBucket;
+import com.example.serverstatuschecker.timeseries.TimeSeriesStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ServerService extends BaseService {
 
+    private static final long MAX_UPTIME_BUCKETS = 10_000;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double P50 = 50;
+    private static final double P95 = 95;
+    private static final double P99 = 99;
+
     private final ServerRepository serverRepository;
-    private final ServerStatusRepository serverStatusRepository;
+    private final MonitoringScheduler monitoringScheduler;
+    private final TimeSeriesStore timeSeries;
 
-    public ServerService(ServerRepository serverRepository, ServerStatusRepository serverStatusRepository,
-                         CommonCache cache, RequestCounterService counterService) {
+    public ServerService(ServerRepository serverRepository, CommonCache cache, RequestCounterService counterService,
+                         MonitoringScheduler monitoringScheduler, TimeSeriesStore timeSeries) {
         super(counterService, cache);
         this.serverRepository = serverRepository;
-        this.serverStatusRepository = serverStatusRepository;
+        this.monitoringScheduler = monitoringScheduler;
+        this.timeSeries = timeSeries;
     }
 
     @Transactional
     public Server createServer(Server server) {
-        return executeWithCache(server.getId(), "server_" + server.getId(), () -> {
-            Server savedServer = serverRepository.save(server);
-            cache.putAllServers(serverRepository.findAll());
-            return savedServer;
-        }, "Кэш найден для сервера с id: {}");
+        return executeWithCache(server.getId(), cache::getServerById, savedServer -> {
+            cache.upsertServer(savedServer);
+            monitoringScheduler.register(savedServer);
+        }, () -> serverRepository.save(server), "Кэш найден для сервера с id: {}");
     }
 
     @Transactional
     public List<Server> getAllServers() {
-        return executeWithCacheForList("all_servers", serverRepository::findAll, "Кэш найден для всех серверов");
+        return executeWithCacheForList(cache::getAllServers, cache::getAllServersVersion,
+                cache::putAllServers, serverRepository::findAll, "Кэш найден для всех серверов");
+    }
+
+    public TaggedList<Server> getAllServers(Predicate<String> notModified) {
+        return executeWithTagForList(cache::getAllServersTag, notModified, this::getAllServers, cache::tagOfServers);
     }
 
     @Transactional
     public Server getServerById(Long id) {
-        return executeWithCache(id, "server_" + id, () ->
+        return executeWithCache(id, cache::getServerById, cache::putServer, () ->
                         serverRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Сервер не найден с id: " + id)),
                 "Кэш найден для сервера с id: {}");
@@ -50,22 +71,61 @@ public class ServerService extends BaseService {
 
     @Transactional
     public Server updateServer(Long id, Server updatedServer) {
-        return executeWithCache(id, "server_" + id, () -> {
+        return executeWithCacheUpdate(() -> {
             Server server = serverRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Сервер не найден с id: " + id));
+            cache.invalidateStatusesByServerName(server.getName());
             server.setName(updatedServer.getName());
-            Server savedServer = serverRepository.save(server);
-            cache.putAllServers(serverRepository.findAll());
-            if (savedServer.getName() != null) {
-                cache.putStatusesByServerName(savedServer.getName(), serverStatusRepository.findByServerName(savedServer.getName()));
-            }
-            return savedServer;
-        }, "Кэш найден для сервера с id: {}");
+            server.setUrl(updatedServer.getUrl());
+            server.setCheckIntervalSeconds(updatedServer.getCheckIntervalSeconds());
+            server.setProbeMethod(updatedServer.getProbeMethod());
+            return serverRepository.save(server);
+        }, savedServer -> {
+            cache.upsertServer(savedServer);
+            cache.invalidateStatusesByServerName(savedServer.getName());
+            monitoringScheduler.register(savedServer);
+        });
     }
 
     @Transactional
     public void deleteServer(Long id) {
-        executeWithCacheClear("server_" + id, () -> serverRepository.deleteById(id),
-                "Кэш найден для сервера с id: {}", id);
+        executeWithCacheClear(id, cache::getServerById, () -> serverRepository.deleteById(id), () -> {
+            cache.removeServer(id);
+            cache.clearServerStatusCache();
+            monitoringScheduler.unregister(id);
+        }, "Кэш найден для сервера с id: {}");
+    }
+
+    /**
+     * Availability and latency of a server per {@code resolution} bucket, read from the rollups
+     * maintained by {@link TimeSeriesStore}; the cost depends on the number of buckets only.
+     */
+    public UptimeReport getUptime(Long id, Instant from, Instant to, Resolution resolution) {
+        getServerById(id);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало интервала должно быть раньше конца");
+        }
+        if (Duration.between(from, to).dividedBy(resolution.getDuration()) > MAX_UPTIME_BUCKETS) {
+            throw new IllegalArgumentException("Слишком много интервалов для разрешения " + resolution);
+        }
+        RollupBucket total = new RollupBucket();
+        List<UptimeBucket> buckets = new ArrayList<>();
+        timeSeries.getRollups(id, resolution, from, to).forEach((start, bucket) -> {
+            total.merge(bucket);
+            buckets.add(toUptimeBucket(start, bucket));
+        });
+        return new UptimeReport(id, resolution, from, to, toUptimeBucket(from, total), buckets);
+    }
+
+    private static UptimeBucket toUptimeBucket(Instant start, RollupBucket bucket) {
+        LatencyHistogram histogram = bucket.getHistogram();
+        long probes = bucket.getProbes();
+        return new UptimeBucket(start, probes, bucket.getUp(),
+                probes == 0 ? null : (double) bucket.getUp() / probes,
+                probes == 0 ? 0 : bucket.getLatencySumMicros() / MICROS_PER_MILLI / probes,
+                histogram.valueAtPercentile(P50) / MICROS_PER_MILLI,
+                histogram.valueAtPercentile(P95) / MICROS_PER_MILLI,
+                histogram.valueAtPercentile(P99) / MICROS_PER_MILLI,
+                bucket.getLatencyMaxMicros() / MICROS_PER_MILLI);
     }
-}
\ No newline at end of file
+}
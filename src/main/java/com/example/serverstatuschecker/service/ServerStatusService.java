@@ -2,141 +2,186 @@ package com.example.serverstatuschecker.service;
 
 import com.example.serverstatuschecker.cache.CommonCache;
 import com.example.serverstatuschecker.dto.ServerStatusDto;
+import com.example.serverstatuschecker.dto.ServerStatusFilter;
+import com.example.serverstatuschecker.dto.ServerStatusPage;
+import com.example.serverstatuschecker.dto.SingleFlightStats;
+import com.example.serverstatuschecker.dto.StatusHistory;
+import com.example.serverstatuschecker.dto.StatusInterval;
+import com.example.serverstatuschecker.dto.TaggedList;
 import com.example.serverstatuschecker.model.Server;
 import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.persistence.ChangeOnlyFilter;
+import com.example.serverstatuschecker.persistence.StatusWriteBehind;
+import com.example.serverstatuschecker.probe.ProbeEngine;
+import com.example.serverstatuschecker.probe.ProbeMethod;
+import com.example.serverstatuschecker.probe.ProbeTarget;
+import com.example.serverstatuschecker.probe.SingleFlight;
 import com.example.serverstatuschecker.repository.ServerRepository;
 import com.example.serverstatuschecker.repository.ServerStatusRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.serverstatuschecker.repository.ServerStatusSpecifications;
+import com.example.serverstatuschecker.stream.StatusStream;
+import com.example.serverstatuschecker.timeseries.TimeSeriesStore;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ServerStatusService extends BaseService {
 
+    private static final int MAX_HISTORY_ROWS = 10_000;
+    private static final Consumer<ServerStatus> NOTHING = status -> { };
+
     private final ServerRepository serverRepository;
     private final ServerStatusRepository serverStatusRepository;
+    private final ProbeEngine probeEngine;
+    private final EntityManager entityManager;
+    private final StatusWriteBehind writeBehind;
+    private final TimeSeriesStore timeSeries;
+    private final StatusStream statusStream;
+    private final ChangeOnlyFilter changeOnly;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<String, ServerStatus> inFlightChecks = new SingleFlight<>("check");
 
     public ServerStatusService(ServerRepository serverRepository, ServerStatusRepository serverStatusRepository,
-                               CommonCache cache, RequestCounterService counterService) {
+                               CommonCache cache, RequestCounterService counterService, ProbeEngine probeEngine,
+                               EntityManager entityManager, StatusWriteBehind writeBehind,
+                               TimeSeriesStore timeSeries, StatusStream statusStream,
+                               ChangeOnlyFilter changeOnly, PlatformTransactionManager transactionManager) {
         super(counterService, cache);
         this.serverRepository = serverRepository;
         this.serverStatusRepository = serverStatusRepository;
+        this.probeEngine = probeEngine;
+        this.entityManager = entityManager;
+        this.writeBehind = writeBehind;
+        this.timeSeries = timeSeries;
+        this.statusStream = statusStream;
+        this.changeOnly = changeOnly;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
     public ServerStatus checkServerStatus(ServerStatus request) {
-        String cacheKey = "status_" + request.getUrl().hashCode();
-        return executeWithCache((long) cacheKey.hashCode(), cacheKey, () -> {
-            ServerStatus response = new ServerStatus();
-            response.setUrl(request.getUrl());
-            try {
-                URL serverUrl = new URL(request.getUrl());
-                HttpURLConnection connection = (HttpURLConnection) serverUrl.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                int responseCode = connection.getResponseCode();
-                response.setIsAvailable(responseCode >= 200 && responseCode < 300);
-                response.setMessage(response.isAvailable() ? "Сервер доступен" :
-                        "Сервер ответил с кодом: " + responseCode);
-                connection.disconnect();
-            } catch (Exception e) {
-                log.error("Ошибка проверки статуса сервера для URL: {}", request.getUrl(), e);
-                response.setIsAvailable(false);
-                response.setMessage("Не удалось подключиться: " + e.getMessage());
-            }
-            Server server = serverRepository.findById(1L).orElseGet(() -> {
-                Server newServer = new Server();
-                newServer.setName("Default Server");
-                return serverRepository.save(newServer);
-            });
-            response.setServer(server);
-            ServerStatus savedResponse = serverStatusRepository.save(response);
-            cache.putAllServerStatuses(serverStatusRepository.findAll());
-            if (server.getName() != null) {
-                cache.putStatusesByServerName(server.getName(), serverStatusRepository.findByServerName(server.getName()));
-            }
-            return savedResponse;
-        }, "Кэш найден для ключа: {}");
+        return checkServerStatus(request, null);
+    }
+
+    /**
+     * Checks one URL, answering from the probe-result cache or joining an identical check in
+     * flight. Checks are identical when method and normalized URL match. Deliberately not
+     * transactional: callers waiting for someone else's check hold no connection, and the
+     * result is stored in a transaction of its own once the probe is done.
+     */
+    public ServerStatus checkServerStatus(ServerStatus request, ProbeMethod method) {
+        String key = new ProbeTarget(request.getUrl(), method).getKey();
+        return executeWithCache(key, cache::getProbeResult, status -> cacheProbeResult(key, status),
+                () -> inFlightChecks.execute(key, () -> {
+                    Server server = getOrCreateDefaultServer();
+                    ServerStatus response = probeEngine.probe(new ProbeTarget(request.getUrl(),
+                            method != null ? method : server.getProbeMethod()));
+                    return transactionTemplate.execute(tx -> {
+                        response.setServer(server);
+                        return persistProbeResult(response);
+                    });
+                }), "Кэш найден для ключа: {}");
+    }
+
+    public SingleFlightStats getCheckCoalescingStats() {
+        return inFlightChecks.stats();
     }
 
     @Transactional
     public List<ServerStatus> checkServerStatuses(List<ServerStatusDto> requests) {
         counterService.increment();
-        Server defaultServer = serverRepository.findById(1L).orElseGet(() -> {
-            Server newServer = new Server();
-            newServer.setName("Default Server");
-            return serverRepository.save(newServer);
-        });
+        List<ServerStatus> responses = new ArrayList<>(requests.size());
+        List<ProbeTarget> pending = new ArrayList<>();
+        for (ServerStatusDto dto : requests) {
+            ProbeTarget requested = new ProbeTarget(dto.getUrl(), dto.getProbeMethod());
+            ServerStatus cachedStatus = cache.getProbeResult(requested.getKey());
+            if (cachedStatus != null) {
+                log.info("Кэш найден для ключа: {}", requested.getKey());
+            } else {
+                pending.add(requested);
+            }
+            responses.add(cachedStatus);
+        }
+        if (pending.isEmpty()) {
+            return responses;
+        }
+
+        Server defaultServer = getOrCreateDefaultServer();
+        List<ProbeTarget> targets = new ArrayList<>(pending.size());
+        for (ProbeTarget requested : pending) {
+            targets.add(requested.getMethod() != null ? requested
+                    : new ProbeTarget(requested.getUrl(), defaultServer.getProbeMethod()));
+        }
+        List<ServerStatus> probed = probeEngine.probeAll(targets);
+        probed.forEach(status -> status.setServer(defaultServer));
+
+        List<ServerStatus> savedResponses = persistProbeResults(probed);
+        for (int i = 0; i < pending.size(); i++) {
+            cacheProbeResult(pending.get(i).getKey(), savedResponses.get(i));
+        }
+        int next = 0;
+        for (int i = 0; i < responses.size(); i++) {
+            if (responses.get(i) == null) {
+                responses.set(i, savedResponses.get(next++));
+            }
+        }
+        return responses;
+    }
 
-        List<ServerStatus> responses = requests.stream()
-                .map(dto -> {
-                    String cacheKey = "status_" + dto.getUrl().hashCode();
-                    ServerStatus cachedStatus = cache.getServerStatusById((long) cacheKey.hashCode());
-                    if (cachedStatus != null) {
-                        log.info("Кэш найден для ключа: {}", cacheKey);
-                        return cachedStatus;
-                    }
-                    ServerStatus response = new ServerStatus();
-                    response.setUrl(dto.getUrl());
-                    try {
-                        URL serverUrl = new URL(dto.getUrl());
-                        HttpURLConnection connection = (HttpURLConnection) serverUrl.openConnection();
-                        connection.setRequestMethod("GET");
-                        connection.setConnectTimeout(5000);
-                        connection.setReadTimeout(5000);
-                        int responseCode = connection.getResponseCode();
-                        response.setIsAvailable(responseCode >= 200 && responseCode < 300);
-                        response.setMessage(response.isAvailable() ? "Сервер доступен" :
-                                "Сервер ответил с кодом: " + responseCode);
-                        connection.disconnect();
-                    } catch (Exception e) {
-                        log.error("Ошибка проверки статуса сервера для URL: {}", dto.getUrl(), e);
-                        response.setIsAvailable(false);
-                        response.setMessage("Не удалось подключиться: " + e.getMessage());
-                    }
-                    response.setServer(defaultServer);
-                    return response;
-                })
-                .collect(Collectors.toList());
-
-        List<ServerStatus> savedResponses = serverStatusRepository.saveAll(responses);
-        savedResponses.forEach(status -> cache.putServerStatus(status));
-        cache.putAllServerStatuses(serverStatusRepository.findAll());
-        if (defaultServer.getName() != null) {
-            cache.putStatusesByServerName(defaultServer.getName(), serverStatusRepository.findByServerName(defaultServer.getName()));
-        }
-        return savedResponses;
+    /**
+     * Stores a scheduled probe of a monitored server. Only these feed the time series: ad-hoc
+     * checks are attached to the default server, so their samples would be charged to a server
+     * that never probed them.
+     */
+    @Transactional
+    public ServerStatus recordMonitoringResult(long serverId, ProbeTarget target, ServerStatus status) {
+        if (status.isNotProbed()) {
+            return status;
+        }
+        status.setServer(serverRepository.getReferenceById(serverId));
+        timeSeries.record(status);
+        ServerStatus saved = persistProbeResult(status);
+        cacheProbeResult(target.getKey(), saved);
+        return saved;
     }
 
     @Transactional
     public ServerStatus createServerStatus(ServerStatus serverStatus) {
-        return executeWithCache(serverStatus.getId(), "status_" + serverStatus.getId(), () -> {
-            ServerStatus savedStatus = serverStatusRepository.save(serverStatus);
-            cache.putAllServerStatuses(serverStatusRepository.findAll());
-            if (savedStatus.getServer() != null && savedStatus.getServer().getName() != null) {
-                cache.putStatusesByServerName(savedStatus.getServer().getName(), serverStatusRepository.findByServerName(savedStatus.getServer().getName()));
-            }
-            return savedStatus;
-        }, "Кэш найден для статуса id: {}");
+        return executeWithCache(serverStatus.getId(), cache::getServerStatusById, cache::upsertServerStatus,
+                () -> serverStatusRepository.save(serverStatus), "Кэш найден для статуса id: {}");
     }
 
     @Transactional
     public List<ServerStatus> getAllServerStatuses() {
-        return executeWithCacheForList("all_statuses", serverStatusRepository::findAll, "Кэш найден для всех статусов");
+        return executeWithCacheForList(cache::getAllServerStatuses, cache::getAllServerStatusesVersion,
+                cache::putAllServerStatuses, serverStatusRepository::findAll, "Кэш найден для всех статусов");
+    }
+
+    public TaggedList<ServerStatus> getAllServerStatuses(Predicate<String> notModified) {
+        return executeWithTagForList(cache::getAllServerStatusesTag, notModified, this::getAllServerStatuses,
+                cache::tagOfServerStatuses);
     }
 
     @Transactional
     public ServerStatus getServerStatusById(Long id) {
-        return executeWithCache(id, "status_" + id, () ->
+        return executeWithCache(id, cache::getServerStatusById, cache::putServerStatus, () ->
                         serverStatusRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Серверный статус не найден с id: " + id)),
                 "Кэш найден для статуса id: {}");
@@ -144,30 +189,199 @@ public class ServerStatusService extends BaseService {
 
     @Transactional
     public ServerStatus updateServerStatus(Long id, ServerStatus updatedStatus) {
-        return executeWithCache(id, "status_" + id, () -> {
+        return executeWithCacheUpdate(() -> {
             ServerStatus status = serverStatusRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Серверный статус не найден с id: " + id));
             status.setUrl(updatedStatus.getUrl());
             status.setIsAvailable(updatedStatus.isAvailable());
             status.setMessage(updatedStatus.getMessage());
-            ServerStatus savedStatus = serverStatusRepository.save(status);
-            cache.putAllServerStatuses(serverStatusRepository.findAll());
-            if (savedStatus.getServer() != null && savedStatus.getServer().getName() != null) {
-                cache.putStatusesByServerName(savedStatus.getServer().getName(), serverStatusRepository.findByServerName(savedStatus.getServer().getName()));
-            }
-            return savedStatus;
-        }, "Кэш найден для статуса id: {}");
+            return serverStatusRepository.save(status);
+        }, cache::upsertServerStatus);
     }
 
     @Transactional
     public void deleteServerStatus(Long id) {
-        executeWithCacheClear("status_" + id, () -> serverStatusRepository.deleteById(id),
-                "Кэш найден для статуса id: {}", id);
+        executeWithCacheClear(id, cache::getServerStatusById, () -> serverStatusRepository.deleteById(id),
+                () -> cache.removeServerStatus(id), "Кэш найден для статуса id: {}");
     }
 
     @Transactional
     public List<ServerStatus> getStatusesByServerName(String serverName) {
-        return executeWithCacheForList("statuses_" + serverName, () ->
-                serverStatusRepository.findByServerName(serverName), "Кэш найден для имени сервера: {}");
+        return executeWithCacheForList(() -> cache.getStatusesByServerName(serverName),
+                () -> cache.getStatusesByServerNameVersion(serverName),
+                (statuses, loadVersion) -> cache.putStatusesByServerName(serverName, statuses, loadVersion),
+                () -> serverStatusRepository.findByServerName(serverName), "Кэш найден для имени сервера");
+    }
+
+    public TaggedList<ServerStatus> getStatusesByServerName(String serverName, Predicate<String> notModified) {
+        return executeWithTagForList(() -> cache.getStatusesByServerNameTag(serverName), notModified,
+                () -> getStatusesByServerName(serverName),
+                statuses -> cache.tagOfStatusesByServerName(serverName, statuses));
+    }
+
+    @Transactional(readOnly = true)
+    public ServerStatusPage getServerStatusPage(ServerStatusFilter filter, Long afterId, int limit) {
+        counterService.increment();
+        List<ServerStatus> items = serverStatusRepository.findBy(ServerStatusSpecifications.matching(filter, afterId),
+                query -> query.sortBy(Sort.by("id")).limit(limit + 1).all());
+        if (items.size() <= limit) {
+            return new ServerStatusPage(items, null);
+        }
+        List<ServerStatus> page = new ArrayList<>(items.subList(0, limit));
+        return new ServerStatusPage(page, page.get(limit - 1).getId());
+    }
+
+    /**
+     * State of {@code url} at {@code at}: the latest stored row at or before it. With
+     * change-only persistence that row is the last transition or heartbeat, which still holds.
+     */
+    @Transactional(readOnly = true)
+    public ServerStatus getStatusAt(String url, Instant at) {
+        counterService.increment();
+        return serverStatusRepository.findFirstByUrlAndCheckedAtLessThanEqualOrderByCheckedAtDescIdDesc(url, at)
+                .orElseThrow(() -> new RuntimeException("Статус для URL " + url + " на момент " + at + " не найден"));
+    }
+
+    /**
+     * Rebuilds the state of {@code url} over [{@code from}, {@code to}) as intervals of equal
+     * availability and message, starting from the state in effect at {@code from}.
+     */
+    @Transactional(readOnly = true)
+    public StatusHistory getStatusHistory(String url, Instant from, Instant to) {
+        counterService.increment();
+        List<ServerStatus> inRange = serverStatusRepository.findBy(
+                ServerStatusSpecifications.matching(new ServerStatusFilter(null, url, from, to), null),
+                query -> query.sortBy(Sort.by("checkedAt", "id")).limit(MAX_HISTORY_ROWS + 1).all());
+        if (inRange.size() > MAX_HISTORY_ROWS) {
+            throw new IllegalArgumentException("Слишком много записей за период, сократите интервал");
+        }
+        List<ServerStatus> rows = new ArrayList<>(inRange.size() + 1);
+        serverStatusRepository.findFirstByUrlAndCheckedAtBeforeOrderByCheckedAtDescIdDesc(url, from)
+                .ifPresent(rows::add);
+        rows.addAll(inRange);
+
+        List<StatusInterval> intervals = new ArrayList<>();
+        StatusInterval current = null;
+        for (ServerStatus row : rows) {
+            if (current != null && current.isAvailable() == row.isAvailable()
+                    && Objects.equals(current.getMessage(), row.getMessage())) {
+                current.setStoredChecks(current.getStoredChecks() + 1);
+                current.setLastCheckedAt(row.getCheckedAt());
+                continue;
+            }
+            Instant start = row.getCheckedAt().isBefore(from) ? from : row.getCheckedAt();
+            if (current != null) {
+                current.setEnd(start);
+            }
+            current = new StatusInterval(start, to, row.isAvailable(), row.getMessage(), 1, row.getCheckedAt());
+            intervals.add(current);
+        }
+        return new StatusHistory(url, from, to, intervals);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachServerStatus(String serverName, Consumer<ServerStatus> consumer) {
+        counterService.increment();
+        try (Stream<ServerStatus> statuses = serverName == null ? serverStatusRepository.streamAll()
+                : serverStatusRepository.streamByServerName(serverName)) {
+            statuses.forEach(status -> {
+                consumer.accept(status);
+                entityManager.detach(status);
+            });
+        }
+    }
+
+    /**
+     * Stores a probe result unless change-only persistence skips it. Stream subscribers hear of
+     * it only once it is durable: after the commit of its row, or for a skipped result after the
+     * commit of the surrounding transaction. A probe that was never sent is only returned.
+     */
+    private ServerStatus persistProbeResult(ServerStatus status) {
+        if (status.isNotProbed()) {
+            return status;
+        }
+        if (!changeOnly.shouldPersist(status)) {
+            afterCompletion(List.of(status), statusStream::publish, NOTHING);
+            return status;
+        }
+        if (writeBehind.isEnabled()) {
+            writeBehind.submit(status, () -> onStored(status), () -> changeOnly.failed(status));
+            return status;
+        }
+        ServerStatus saved = serverStatusRepository.save(status);
+        afterCompletion(List.of(saved), this::onStored, changeOnly::failed);
+        return saved;
+    }
+
+    /**
+     * Bulk form of {@link #persistProbeResult}. Returns the results in the order given, with
+     * stored rows in place of the statuses they were saved from.
+     */
+    private List<ServerStatus> persistProbeResults(List<ServerStatus> statuses) {
+        List<ServerStatus> changed = new ArrayList<>(statuses.size());
+        List<ServerStatus> unchanged = new ArrayList<>();
+        for (ServerStatus status : statuses) {
+            if (!status.isNotProbed()) {
+                (changeOnly.shouldPersist(status) ? changed : unchanged).add(status);
+            }
+        }
+        afterCompletion(unchanged, statusStream::publish, NOTHING);
+        if (writeBehind.isEnabled()) {
+            changed.forEach(status -> writeBehind.submit(status,
+                    () -> onStored(status), () -> changeOnly.failed(status)));
+            return statuses;
+        }
+        if (changed.isEmpty()) {
+            return statuses;
+        }
+        List<ServerStatus> saved = serverStatusRepository.saveAll(changed);
+        afterCompletion(saved, this::onStored, changeOnly::failed);
+        Map<ServerStatus, ServerStatus> savedFrom = new IdentityHashMap<>();
+        for (int i = 0; i < changed.size(); i++) {
+            savedFrom.put(changed.get(i), saved.get(i));
+        }
+        return statuses.stream().map(status -> savedFrom.getOrDefault(status, status)).toList();
+    }
+
+    private void onStored(ServerStatus status) {
+        changeOnly.stored(status);
+        statusStream.publish(status);
+    }
+
+    /**
+     * Hands {@code statuses} to {@code onCommitted} once the surrounding transaction commits, or to
+     * {@code onFailed} when it rolls back. Outside a transaction the rows are already committed.
+     */
+    private static void afterCompletion(List<ServerStatus> statuses, Consumer<ServerStatus> onCommitted,
+                                        Consumer<ServerStatus> onFailed) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statuses.forEach(onCommitted);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                statuses.forEach(status == STATUS_COMMITTED ? onCommitted : onFailed);
+            }
+        });
+    }
+
+    private void cacheProbeResult(String key, ServerStatus status) {
+        if (status.isNotProbed()) {
+            return;
+        }
+        cache.putProbeResult(key, status);
+        cache.upsertServerStatus(status);
+    }
+
+    private Server getOrCreateDefaultServer() {
+        return serverRepository.findById(1L).orElseGet(() -> {
+            Server newServer = new Server();
+            newServer.setName("Default Server");
+            return serverRepository.save(newServer);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package com.example.serverstatuschecker.stream;
+
+import com.example.serverstatuschecker.config.StreamProperties;
+import com.example.serverstatuschecker.dto.StatusTransition;
+import com.example.serverstatuschecker.model.ServerStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes status transitions to Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks the probe path: each subscriber has a buffer of
+ * {@code stream.buffer-size} transitions drained by a small sender pool. When a client reads
+ * too slowly its oldest buffered transitions are dropped, and the next event it receives is an
+ * {@code overflow} event with the number lost, so it knows to reload the full list.
+ * <p>
+ * Writes to a client block a sender thread, so a client that stops reading would stall
+ * everyone else. A watchdog evicts a subscriber whose write has taken longer than
+ * {@code stream.send-timeout}, interrupting the stuck sender, and one that has lost a whole
+ * buffer since its last write.
+ */
+@Component
+@Slf4j
+public class StatusStream implements MeterBinder {
+
+    private static final String TRANSITION_EVENT = "transition";
+    private static final String OVERFLOW_EVENT = "overflow";
+
+    private final StreamProperties properties;
+    private final TransitionDetector detector;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService watchdog;
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public StatusStream(StreamProperties properties) {
+        this.properties = properties;
+        this.detector = new TransitionDetector(properties.getLatencyBands(), properties.getMaxTrackedUrls());
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, properties.getSenderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMs = properties.getHeartbeat().toMillis();
+        watchdog.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(1, properties.getSendTimeout().toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::evictStalled, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void publish(ServerStatus status) {
+        StatusTransition transition = detector.detect(status);
+        if (transition == null) {
+            return;
+        }
+        published.increment();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(transition)) {
+                subscriber.offer(transition);
+            }
+        }
+    }
+
+    /**
+     * Opens a stream of transitions, limited to the given servers when {@code serverIds} is not
+     * empty.
+     */
+    public SseEmitter subscribe(Set<Long> serverIds) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Превышено максимальное число подписчиков потока статусов");
+        }
+        return register(new SseEmitter(properties.getTimeout().toMillis()), serverIds);
+    }
+
+    SseEmitter register(SseEmitter emitter, Set<Long> serverIds) {
+        Subscriber subscriber = new Subscriber(emitter, serverIds);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        log.debug("Новый подписчик потока статусов, фильтр серверов: {}", serverIds);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    private void evictStalled() {
+        long limitNanos = properties.getSendTimeout().toNanos();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.evictIfStalled(now, limitNanos);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("stream.subscribers", subscribers, CopyOnWriteArrayList::size).register(registry);
+        FunctionCounter.builder("stream.transitions", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stream.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stream.evicted", evicted, LongAdder::sum).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> serverIds;
+        private final ArrayDeque<StatusTransition> buffer = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long lost;
+        private boolean keepalive;
+        private boolean evicted;
+        private Thread sending;
+        private long sendStartedNanos;
+
+        private Subscriber(SseEmitter emitter, Set<Long> serverIds) {
+            this.emitter = emitter;
+            this.serverIds = serverIds;
+        }
+
+        private boolean accepts(StatusTransition transition) {
+            return serverIds.isEmpty() || serverIds.contains(transition.getServerId());
+        }
+
+        private void offer(StatusTransition transition) {
+            synchronized (this) {
+                if (evicted) {
+                    return;
+                }
+                if (buffer.size() >= properties.getBufferSize()) {
+                    buffer.pollFirst();
+                    lost++;
+                    dropped.increment();
+                    if (lost >= properties.getBufferSize()) {
+                        evict("потеряно событий: " + lost);
+                        return;
+                    }
+                }
+                buffer.addLast(transition);
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                keepalive = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Sends everything buffered, or a keepalive when there is nothing else. Only one drain per
+         * subscriber runs at a time; the flag is cleared under the buffer lock, so a transition
+         * offered afterwards schedules a new one. An evicted subscriber's emitter is completed here
+         * rather than by the thread that evicted it, since completing waits for a write in progress.
+         */
+        private void drain() {
+            try {
+                while (true) {
+                    StatusTransition next;
+                    long missed;
+                    boolean ping;
+                    synchronized (this) {
+                        if (evicted) {
+                            scheduled.set(false);
+                            break;
+                        }
+                        next = buffer.pollFirst();
+                        missed = lost;
+                        lost = 0;
+                        ping = keepalive && next == null;
+                        keepalive = false;
+                        if (next == null && !ping) {
+                            scheduled.set(false);
+                            return;
+                        }
+                        sending = Thread.currentThread();
+                        sendStartedNanos = System.nanoTime();
+                    }
+                    try {
+                        send(next, missed);
+                    } finally {
+                        synchronized (this) {
+                            sending = null;
+                        }
+                    }
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик потока статусов отключён: {}", e.getMessage());
+                close();
+            } finally {
+                synchronized (this) {
+                    if (evicted) {
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private void send(StatusTransition next, long missed) throws IOException {
+            if (missed > 0) {
+                emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(Map.of("dropped", missed)));
+            }
+            if (next == null) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(next.getSequence()))
+                    .name(TRANSITION_EVENT)
+                    .data(next, MediaType.APPLICATION_JSON));
+        }
+
+        private synchronized void evictIfStalled(long now, long limitNanos) {
+            if (sending != null && now - sendStartedNanos > limitNanos) {
+                evict("запись не завершилась за " + properties.getSendTimeout());
+            }
+        }
+
+        /**
+         * Drops the subscriber and interrupts a write it is stuck in. Called with the lock held.
+         */
+        private void evict(String reason) {
+            if (evicted) {
+                return;
+            }
+            log.debug("Подписчик потока статусов отключён как отстающий: {}", reason);
+            evicted = true;
+            buffer.clear();
+            StatusStream.this.evicted.increment();
+            subscribers.remove(this);
+            if (sending != null) {
+                sending.interrupt();
+            } else {
+                schedule();
+            }
+        }
+
+        /**
+         * Forgets the subscriber. A failed send has already been reported to the container,
+         * which completes the emitter itself.
+         */
+        private void close() {
+            subscribers.remove(this);
+        }
+    }
+}
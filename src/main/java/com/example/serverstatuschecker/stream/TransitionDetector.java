@@ -0,0 +1,93 @@
+package com.example.serverstatuschecker.stream;
+
+import com.example.serverstatuschecker.dto.StatusTransition;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.probe.UrlNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the last availability and latency band per normalized URL and turns a new status
+ * into a {@link StatusTransition} when either changed. The first status seen for a URL is a
+ * transition from an unknown state.
+ */
+class TransitionDetector {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long[] bandLimitsNanos;
+    private final String[] bandNames;
+    private final Cache<String, State> states;
+    private final AtomicLong sequence = new AtomicLong();
+
+    TransitionDetector(List<Duration> latencyBands, int maxTrackedUrls) {
+        List<Duration> limits = latencyBands.stream().sorted().toList();
+        this.bandLimitsNanos = limits.stream().mapToLong(Duration::toNanos).toArray();
+        this.bandNames = new String[limits.size() + 1];
+        for (int i = 0; i <= limits.size(); i++) {
+            String lower = i == 0 ? "0" : format(limits.get(i - 1));
+            bandNames[i] = i == limits.size() ? ">" + lower : lower + "-" + format(limits.get(i));
+        }
+        this.states = Caffeine.newBuilder().maximumSize(maxTrackedUrls).build();
+    }
+
+    /**
+     * Returns the transition caused by {@code status}, or null when it changes nothing.
+     */
+    StatusTransition detect(ServerStatus status) {
+        String url = UrlNormalizer.normalize(status.getUrl());
+        if (url == null) {
+            return null;
+        }
+        State next = new State(status.isAvailable(), bandOf(status));
+        State[] previous = new State[1];
+        states.asMap().compute(url, (key, current) -> {
+            previous[0] = current;
+            return next;
+        });
+        State before = previous[0];
+        StatusTransition.Kind kind;
+        if (before == null || before.available != next.available) {
+            kind = StatusTransition.Kind.AVAILABILITY;
+        } else if (next.band != before.band) {
+            kind = StatusTransition.Kind.LATENCY;
+        } else {
+            return null;
+        }
+        Long serverId = status.getServer() != null ? status.getServer().getId() : null;
+        Double latencyMs = status.getLatencyNanos() != null ? status.getLatencyNanos() / NANOS_PER_MILLI : null;
+        return new StatusTransition(sequence.incrementAndGet(), kind, url, serverId,
+                before != null ? before.available : null, next.available,
+                before != null ? nameOf(before.band) : null, nameOf(next.band),
+                status.getStatusCode(), latencyMs, status.getMessage(), status.getCheckedAt());
+    }
+
+    /**
+     * Band index of an answered probe, or -1 when it was unavailable or carries no latency.
+     */
+    private int bandOf(ServerStatus status) {
+        if (!status.isAvailable() || status.getLatencyNanos() == null) {
+            return -1;
+        }
+        int band = 0;
+        while (band < bandLimitsNanos.length && status.getLatencyNanos() >= bandLimitsNanos[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private String nameOf(int band) {
+        return band >= 0 ? bandNames[band] : null;
+    }
+
+    private static String format(Duration duration) {
+        return duration.toMillis() % 1000 == 0 ? duration.toSeconds() + "s" : duration.toMillis() + "ms";
+    }
+
+    private record State(boolean available, int band) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.serverstatuschecker.timeseries;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Sparse log-linear latency histogram in microseconds, in the spirit of HdrHistogram: values
+ * below 32 µs are exact, larger values fall into 16 sub-buckets per power of two (about 6%
+ * relative error). Only non-empty bins are stored, so a bucket that saw a handful of probes
+ * costs a few bytes. Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int EXACT_LIMIT = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int ENCODED_BIN_BYTES = Short.BYTES + Long.BYTES;
+    private static final double PERCENT = 100.0;
+
+    private int[] bins = new int[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+    private long totalCount;
+
+    public void record(long micros) {
+        add(binOf(Math.max(0, micros)), 1);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.bins[i], other.counts[i]);
+        }
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public void reset() {
+        size = 0;
+        totalCount = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the highest value equivalent to the sample at {@code percentile} (0-100), or 0
+     * when the histogram is empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, PERCENT) / PERCENT * totalCount));
+        long seen = 0;
+        for (int i = 0; i < size; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(bins[i]);
+            }
+        }
+        return highestValueOf(bins[size - 1]);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * ENCODED_BIN_BYTES);
+        for (int i = 0; i < size; i++) {
+            buffer.putShort((short) bins[i]);
+            buffer.putLong(counts[i]);
+        }
+        return buffer.array();
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (bytes == null) {
+            return histogram;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= ENCODED_BIN_BYTES) {
+            histogram.add(buffer.getShort(), buffer.getLong());
+        }
+        return histogram;
+    }
+
+    static int binOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestValueOf(int bin) {
+        if (bin < EXACT_LIMIT) {
+            return bin;
+        }
+        int shift = bin / SUB_BUCKETS - 1;
+        long subBucket = bin % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private void add(int bin, long count) {
+        int index = Arrays.binarySearch(bins, 0, size, bin);
+        if (index < 0) {
+            index = -index - 1;
+            if (size == bins.length) {
+                bins = Arrays.copyOf(bins, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(bins, index, bins, index + 1, size - index);
+            System.arraycopy(counts, index, counts, index + 1, size - index);
+            bins[index] = bin;
+            counts[index] = 0;
+            size++;
+        }
+        counts[index] += count;
+        totalCount += count;
+    }
+}
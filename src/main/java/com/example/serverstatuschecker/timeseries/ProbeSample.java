@@ -0,0 +1,30 @@
+package com.example.serverstatuschecker.timeseries;
+
+import com.example.serverstatuschecker.model.ServerStatus;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One probe in compact form: status code, latency in microseconds and the availability bit
+ * instead of the free-text message stored in server_statuses.
+ */
+@Value
+public class ProbeSample {
+    public static final short NO_STATUS = 0;
+
+    long serverId;
+    Instant timestamp;
+    short statusCode;
+    int latencyMicros;
+    boolean available;
+
+    public static ProbeSample from(long serverId, ServerStatus status) {
+        Instant timestamp = status.getCheckedAt() != null ? status.getCheckedAt() : Instant.now();
+        short statusCode = status.getStatusCode() != null ? status.getStatusCode().shortValue() : NO_STATUS;
+        long latencyNanos = status.getLatencyNanos() != null ? status.getLatencyNanos() : 0;
+        int latencyMicros = (int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        return new ProbeSample(serverId, timestamp, statusCode, latencyMicros, status.isAvailable());
+    }
+}
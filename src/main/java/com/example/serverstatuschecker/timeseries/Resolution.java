@@ -0,0 +1,25 @@
+package com.example.serverstatuschecker.timeseries;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum Resolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    Resolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketStart(Instant timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.serverstatuschecker.timeseries;
+
+import lombok.Getter;
+
+/**
+ * Additive aggregate of the probes that fell into one bucket. Not thread-safe; callers
+ * guard it with the map entry or series that owns it.
+ */
+@Getter
+public class RollupBucket {
+    private long probes;
+    private long up;
+    private long latencySumMicros;
+    private int latencyMaxMicros;
+    private final LatencyHistogram histogram;
+
+    public RollupBucket() {
+        this(new LatencyHistogram());
+    }
+
+    private RollupBucket(LatencyHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    public static RollupBucket of(long probes, long up, long latencySumMicros, int latencyMaxMicros,
+                                  byte[] histogram) {
+        RollupBucket bucket = new RollupBucket(LatencyHistogram.fromBytes(histogram));
+        bucket.probes = probes;
+        bucket.up = up;
+        bucket.latencySumMicros = latencySumMicros;
+        bucket.latencyMaxMicros = latencyMaxMicros;
+        return bucket;
+    }
+
+    public void add(ProbeSample sample) {
+        probes++;
+        if (sample.isAvailable()) {
+            up++;
+        }
+        latencySumMicros += sample.getLatencyMicros();
+        latencyMaxMicros = Math.max(latencyMaxMicros, sample.getLatencyMicros());
+        histogram.record(sample.getLatencyMicros());
+    }
+
+    public void merge(RollupBucket other) {
+        probes += other.probes;
+        up += other.up;
+        latencySumMicros += other.latencySumMicros;
+        latencyMaxMicros = Math.max(latencyMaxMicros, other.latencyMaxMicros);
+        histogram.merge(other.histogram);
+    }
+
+    public RollupBucket copy() {
+        RollupBucket copy = new RollupBucket();
+        copy.merge(this);
+        return copy;
+    }
+}
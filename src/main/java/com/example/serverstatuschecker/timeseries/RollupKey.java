@@ -0,0 +1,12 @@
+package com.example.serverstatuschecker.timeseries;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class RollupKey {
+    long serverId;
+    Resolution resolution;
+    Instant bucketStart;
+}
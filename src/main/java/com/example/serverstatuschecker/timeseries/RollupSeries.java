@@ -0,0 +1,62 @@
+package com.example.serverstatuschecker.timeseries;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of one server's rollups at one resolution, kept current by every recorded
+ * sample once it has been loaded. While loading, each bucket is seeded exactly once with the
+ * not-yet-flushed delta so that samples are counted neither twice nor not at all.
+ */
+class RollupSeries {
+
+    private final Duration retention;
+    private final NavigableMap<Instant, RollupBucket> buckets = new TreeMap<>();
+    private Set<Instant> seeded = new HashSet<>();
+    private volatile boolean loaded;
+
+    RollupSeries(Duration retention) {
+        this.retention = retention;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    synchronized void add(Instant bucketStart, RollupBucket pendingBeforeSample, ProbeSample sample) {
+        seed(bucketStart, pendingBeforeSample);
+        RollupBucket bucket = buckets.get(bucketStart);
+        if (bucket == null) {
+            bucket = new RollupBucket();
+            buckets.put(bucketStart, bucket);
+            buckets.headMap(bucketStart.minus(retention)).clear();
+        }
+        bucket.add(sample);
+    }
+
+    synchronized void seed(Instant bucketStart, RollupBucket pending) {
+        if (loaded || !seeded.add(bucketStart) || pending == null) {
+            return;
+        }
+        merge(bucketStart, pending);
+    }
+
+    synchronized void merge(Instant bucketStart, RollupBucket bucket) {
+        buckets.computeIfAbsent(bucketStart, start -> new RollupBucket()).merge(bucket);
+    }
+
+    synchronized void markLoaded() {
+        loaded = true;
+        seeded = null;
+    }
+
+    synchronized NavigableMap<Instant, RollupBucket> range(Instant from, Instant to) {
+        NavigableMap<Instant, RollupBucket> copy = new TreeMap<>();
+        buckets.subMap(from, true, to, false).forEach((start, bucket) -> copy.put(start, bucket.copy()));
+        return copy;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.serverstatuschecker.timeseries;
+
+import lombok.Value;
+
+@Value
+class SeriesKey {
+    long serverId;
+    Resolution resolution;
+}
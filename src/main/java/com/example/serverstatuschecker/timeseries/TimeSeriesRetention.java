@@ -0,0 +1,42 @@
+package com.example.serverstatuschecker.timeseries;
+
+import com.example.serverstatuschecker.config.TimeSeriesProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TimeSeriesRetention {
+
+    private final TimeSeriesSchema schema;
+    private final TimeSeriesProperties properties;
+
+    /**
+     * Creates the partitions for the coming days and drops raw samples and rollups that are
+     * older than their configured retention.
+     */
+    @Scheduled(cron = "${timeseries.retention-cron:0 15 0 * * *}", zone = "UTC")
+    public void run() {
+        if (!properties.isEnabled() || !schema.ensureInitialized()) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            schema.ensurePartitions(LocalDate.now(ZoneOffset.UTC), properties.getPartitionsAhead());
+            schema.dropSamplesBefore(now.minus(properties.getRawRetention()));
+            schema.deleteRollupsBefore(Resolution.MINUTE, now.minus(properties.getMinuteRollupRetention()));
+            schema.deleteRollupsBefore(Resolution.HOUR, now.minus(properties.getHourRollupRetention()));
+            schema.deleteRollupsBefore(Resolution.DAY, now.minus(properties.getDayRollupRetention()));
+        } catch (DataAccessException e) {
+            log.error("Ошибка очистки временных рядов", e);
+        }
+    }
+}
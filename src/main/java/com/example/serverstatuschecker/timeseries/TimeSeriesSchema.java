@@ -0,0 +1,160 @@
+package com.example.serverstatuschecker.timeseries;
+
+import com.example.serverstatuschecker.config.TimeSeriesProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL and partition maintenance for probe_samples and probe_rollups. On PostgreSQL raw samples
+ * are range-partitioned by day so retention drops whole partitions; other databases get a plain
+ * table and fall back to DELETE.
+ */
+@Component
+@Slf4j
+public class TimeSeriesSchema implements InitializingBean {
+
+    private static final String SAMPLE_COLUMNS = "(server_id BIGINT NOT NULL, "
+            + "ts TIMESTAMP WITH TIME ZONE NOT NULL, status_code SMALLINT NOT NULL, "
+            + "latency_us INTEGER NOT NULL, available BOOLEAN NOT NULL)";
+    private static final String CREATE_SAMPLES = "CREATE TABLE IF NOT EXISTS probe_samples " + SAMPLE_COLUMNS;
+    private static final String CREATE_PARTITIONED_SAMPLES = CREATE_SAMPLES + " PARTITION BY RANGE (ts)";
+    private static final String CREATE_DEFAULT_PARTITION =
+            "CREATE TABLE IF NOT EXISTS probe_samples_default PARTITION OF probe_samples DEFAULT";
+    private static final String CREATE_SAMPLES_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_probe_samples_server_ts ON probe_samples (server_id, ts)";
+    private static final String CREATE_ROLLUPS = "CREATE TABLE IF NOT EXISTS probe_rollups ("
+            + "server_id BIGINT NOT NULL, resolution VARCHAR(8) NOT NULL, "
+            + "bucket_start TIMESTAMP WITH TIME ZONE NOT NULL, probes BIGINT NOT NULL, up BIGINT NOT NULL, "
+            + "latency_sum_us BIGINT NOT NULL, latency_max_us INTEGER NOT NULL, latency_hist %s, "
+            + "PRIMARY KEY (server_id, resolution, bucket_start))";
+    private static final String ADD_ROLLUP_HISTOGRAM = "ALTER TABLE probe_rollups ADD COLUMN IF NOT EXISTS "
+            + "latency_hist %s";
+    private static final String CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS %s PARTITION OF probe_samples "
+            + "FOR VALUES FROM ('%s') TO ('%s')";
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = 'probe_samples'";
+    private static final String DELETE_SAMPLES = "DELETE FROM probe_samples WHERE ts < ?";
+    private static final String DELETE_DEFAULT_PARTITION_SAMPLES = "DELETE FROM probe_samples_default WHERE ts < ?";
+    private static final String DELETE_ROLLUPS = "DELETE FROM probe_rollups WHERE resolution = ? AND bucket_start < ?";
+    private static final String PARTITION_PREFIX = "probe_samples_";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{8})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeSeriesProperties properties;
+    private volatile boolean initialized;
+    private boolean partitioned;
+
+    public TimeSeriesSchema(JdbcTemplate jdbcTemplate, TimeSeriesProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (properties.isEnabled()) {
+            ensureInitialized();
+        }
+    }
+
+    public synchronized boolean ensureInitialized() {
+        if (initialized) {
+            return true;
+        }
+        try {
+            partitioned = isPostgres();
+            jdbcTemplate.execute(partitioned ? CREATE_PARTITIONED_SAMPLES : CREATE_SAMPLES);
+            if (partitioned) {
+                jdbcTemplate.execute(CREATE_DEFAULT_PARTITION);
+            }
+            jdbcTemplate.execute(CREATE_SAMPLES_INDEX);
+            String binaryType = partitioned ? "BYTEA" : "VARBINARY";
+            jdbcTemplate.execute(String.format(CREATE_ROLLUPS, binaryType));
+            jdbcTemplate.execute(String.format(ADD_ROLLUP_HISTOGRAM, binaryType));
+            initialized = true;
+        } catch (DataAccessException e) {
+            log.warn("Не удалось создать таблицы временных рядов: {}", e.getMessage());
+            return false;
+        }
+        ensurePartitions(LocalDate.now(ZoneOffset.UTC), properties.getPartitionsAhead());
+        return true;
+    }
+
+    public void ensurePartitions(LocalDate from, int daysAhead) {
+        if (!partitioned) {
+            return;
+        }
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = from.plusDays(i);
+            try {
+                jdbcTemplate.execute(String.format(CREATE_PARTITION, partitionName(day),
+                        day.atStartOfDay(ZoneOffset.UTC).toOffsetDateTime(),
+                        day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toOffsetDateTime()));
+            } catch (DataAccessException e) {
+                log.warn("Не удалось создать партицию {}: {}", partitionName(day), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops every daily partition that ends at or before {@code cutoff}. Rows that landed in the
+     * default partition, and all rows on non-partitioned databases, are deleted instead.
+     */
+    public void dropSamplesBefore(Instant cutoff) {
+        OffsetDateTime cutoffTime = toTimestamp(cutoff);
+        if (!partitioned) {
+            int deleted = jdbcTemplate.update(DELETE_SAMPLES, cutoffTime);
+            log.info("Удалено {} устаревших замеров", deleted);
+            return;
+        }
+        LocalDate cutoffDay = cutoff.atOffset(ZoneOffset.UTC).toLocalDate();
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(matcher.group(1), DateTimeFormatter.BASIC_ISO_DATE);
+            if (!day.plusDays(1).isAfter(cutoffDay)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Удалена партиция замеров {}", partition);
+            }
+        }
+        jdbcTemplate.update(DELETE_DEFAULT_PARTITION_SAMPLES, cutoffTime);
+    }
+
+    public void deleteRollupsBefore(Resolution resolution, Instant cutoff) {
+        int deleted = jdbcTemplate.update(DELETE_ROLLUPS, resolution.name(), toTimestamp(cutoff));
+        if (deleted > 0) {
+            log.info("Удалено {} агрегатов {}", deleted, resolution);
+        }
+    }
+
+    static OffsetDateTime toTimestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.serverstatuschecker.timeseries;
+
+import com.example.serverstatuschecker.cache.CacheRegion;
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.config.TimeSeriesProperties;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects probe samples and keeps minute, hour and day rollups up to date. Samples are
+ * buffered and batch-inserted into probe_samples; rollups accumulate as in-memory deltas that
+ * are added to probe_rollups on every flush, so nothing ever re-scans raw history. Rollup
+ * series that have been queried stay in memory and are updated in place by new samples.
+ */
+@Component
+@Slf4j
+public class TimeSeriesStore {
+
+    private static final String INSERT_SAMPLE = "INSERT INTO probe_samples "
+            + "(server_id, ts, status_code, latency_us, available) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_ROLLUP_HISTOGRAM = "SELECT latency_hist FROM probe_rollups "
+            + "WHERE server_id = ? AND resolution = ? AND bucket_start = ?";
+    private static final String UPDATE_ROLLUP = "UPDATE probe_rollups SET probes = probes + ?, up = up + ?, "
+            + "latency_sum_us = latency_sum_us + ?, latency_max_us = GREATEST(latency_max_us, ?), latency_hist = ? "
+            + "WHERE server_id = ? AND resolution = ? AND bucket_start = ?";
+    private static final String INSERT_ROLLUP = "INSERT INTO probe_rollups (server_id, resolution, bucket_start, "
+            + "probes, up, latency_sum_us, latency_max_us, latency_hist) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ROLLUPS = "SELECT bucket_start, probes, up, latency_sum_us, latency_max_us, "
+            + "latency_hist FROM probe_rollups WHERE server_id = ? AND resolution = ? AND bucket_start >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeSeriesSchema schema;
+    private final TimeSeriesProperties properties;
+    private final BlockingQueue<ProbeSample> samples;
+    private final Map<RollupKey, RollupBucket> pendingRollups = new ConcurrentHashMap<>();
+    private final LongAdder droppedSamples = new LongAdder();
+    private final CacheRegion<SeriesKey, RollupSeries> series;
+    private final Object flushLock = new Object();
+    private final LongAdder totalDroppedSamples = new LongAdder();
+    private final DistributionSummary batchSizes;
+
+    public TimeSeriesStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           TimeSeriesSchema schema, TimeSeriesProperties properties,
+                           CacheProperties cacheProperties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.schema = schema;
+        this.properties = properties;
+        this.samples = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.series = new CacheRegion<>("rollup-series", cacheProperties.getRegion("rollup-series"));
+        this.batchSizes = DistributionSummary.builder("timeseries.write.batch.size").register(registry);
+        Gauge.builder("timeseries.queue.depth", samples, BlockingQueue::size).register(registry);
+        Gauge.builder("timeseries.pending.rollups", pendingRollups, Map::size).register(registry);
+        FunctionCounter.builder("timeseries.samples.dropped", totalDroppedSamples, LongAdder::sum)
+                .register(registry);
+        series.bindTo(registry);
+    }
+
+    public void record(ServerStatus status) {
+        Server server = status.getServer();
+        if (!properties.isEnabled() || server == null || server.getId() == null) {
+            return;
+        }
+        ProbeSample sample = ProbeSample.from(server.getId(), status);
+        for (Resolution resolution : Resolution.values()) {
+            RollupKey key = new RollupKey(sample.getServerId(), resolution,
+                    resolution.bucketStart(sample.getTimestamp()));
+            pendingRollups.compute(key, (k, bucket) -> {
+                RollupSeries loadedSeries = series.get(new SeriesKey(k.getServerId(), k.getResolution()));
+                if (loadedSeries != null) {
+                    loadedSeries.add(k.getBucketStart(), bucket, sample);
+                }
+                RollupBucket target = bucket != null ? bucket : new RollupBucket();
+                target.add(sample);
+                return target;
+            });
+        }
+        if (!samples.offer(sample)) {
+            droppedSamples.increment();
+            totalDroppedSamples.increment();
+        }
+    }
+
+    /**
+     * Returns copies of the rollup buckets of one server in {@code [from, to)}. The first query
+     * for a server and resolution loads its rollups from the database; after that the series is
+     * maintained incrementally and queries never touch the database.
+     */
+    public NavigableMap<Instant, RollupBucket> getRollups(long serverId, Resolution resolution,
+                                                         Instant from, Instant to) {
+        return loadSeries(new SeriesKey(serverId, resolution)).range(resolution.bucketStart(from), to);
+    }
+
+    @Scheduled(fixedDelayString = "${timeseries.flush-interval-ms:1000}")
+    public void flush() {
+        if (!properties.isEnabled() || !schema.ensureInitialized()) {
+            return;
+        }
+        long dropped = droppedSamples.sumThenReset();
+        if (dropped > 0) {
+            log.warn("Очередь замеров переполнена, отброшено {} замеров", dropped);
+        }
+        flushSamples();
+        synchronized (flushLock) {
+            flushRollups();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushSamples() {
+        List<ProbeSample> batch = new ArrayList<>(properties.getBatchSize());
+        while (samples.drainTo(batch, properties.getBatchSize()) > 0) {
+            batchSizes.record(batch.size());
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SAMPLE, batch, batch.size(), (ps, sample) -> {
+                    ps.setLong(1, sample.getServerId());
+                    ps.setObject(2, TimeSeriesSchema.toTimestamp(sample.getTimestamp()));
+                    ps.setShort(3, sample.getStatusCode());
+                    ps.setInt(4, sample.getLatencyMicros());
+                    ps.setBoolean(5, sample.isAvailable());
+                });
+            } catch (RuntimeException e) {
+                log.error("Не удалось сохранить пакет из {} замеров", batch.size(), e);
+            }
+            batch = new ArrayList<>(properties.getBatchSize());
+        }
+    }
+
+    private void flushRollups() {
+        List<Map.Entry<RollupKey, RollupBucket>> deltas = new ArrayList<>();
+        for (RollupKey key : pendingRollups.keySet()) {
+            RollupBucket bucket = pendingRollups.remove(key);
+            if (bucket != null) {
+                deltas.add(Map.entry(key, bucket));
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> deltas.forEach(delta ->
+                    addToRollup(delta.getKey(), delta.getValue())));
+        } catch (RuntimeException e) {
+            log.error("Не удалось обновить {} агрегатов, повтор при следующей записи", deltas.size(), e);
+            deltas.forEach(delta -> pendingRollups.merge(delta.getKey(), delta.getValue(), (current, failed) -> {
+                current.merge(failed);
+                return current;
+            }));
+        }
+    }
+
+    /**
+     * Counters are added in SQL; the histogram cannot be, so it is read, merged and written back.
+     * There is a single flusher, so the read-modify-write does not race with itself.
+     */
+    private void addToRollup(RollupKey key, RollupBucket delta) {
+        Object bucketStart = TimeSeriesSchema.toTimestamp(key.getBucketStart());
+        List<byte[]> stored = jdbcTemplate.query(SELECT_ROLLUP_HISTOGRAM, (rs, rowNum) -> rs.getBytes(1),
+                key.getServerId(), key.getResolution().name(), bucketStart);
+        if (stored.isEmpty()) {
+            jdbcTemplate.update(INSERT_ROLLUP, key.getServerId(), key.getResolution().name(), bucketStart,
+                    delta.getProbes(), delta.getUp(), delta.getLatencySumMicros(), delta.getLatencyMaxMicros(),
+                    delta.getHistogram().toBytes());
+            return;
+        }
+        LatencyHistogram histogram = LatencyHistogram.fromBytes(stored.get(0));
+        histogram.merge(delta.getHistogram());
+        jdbcTemplate.update(UPDATE_ROLLUP, delta.getProbes(), delta.getUp(), delta.getLatencySumMicros(),
+                delta.getLatencyMaxMicros(), histogram.toBytes(), key.getServerId(), key.getResolution().name(),
+                bucketStart);
+    }
+
+    /**
+     * Loads a series while holding the flush lock, so no delta moves from memory to the database
+     * halfway through. The series is published before loading: samples recorded meanwhile seed
+     * their bucket with the pending delta, and the remaining pending deltas are seeded here.
+     */
+    private RollupSeries loadSeries(SeriesKey key) {
+        RollupSeries loaded = series.get(key);
+        if (loaded != null && loaded.isLoaded()) {
+            return loaded;
+        }
+        synchronized (flushLock) {
+            loaded = series.get(key);
+            if (loaded != null && loaded.isLoaded()) {
+                return loaded;
+            }
+            Duration retention = rollupRetention(key.getResolution());
+            RollupSeries created = new RollupSeries(retention);
+            series.put(key, created);
+            try {
+                for (RollupKey pendingKey : pendingRollups.keySet()) {
+                    if (pendingKey.getServerId() == key.getServerId()
+                            && pendingKey.getResolution() == key.getResolution()) {
+                        pendingRollups.computeIfPresent(pendingKey, (k, bucket) -> {
+                            created.seed(k.getBucketStart(), bucket);
+                            return bucket;
+                        });
+                    }
+                }
+                Instant since = key.getResolution().bucketStart(Instant.now().minus(retention));
+                jdbcTemplate.query(SELECT_ROLLUPS, rs -> {
+                    created.merge(rs.getObject(1, OffsetDateTime.class).toInstant(), RollupBucket.of(rs.getLong(2),
+                            rs.getLong(3), rs.getLong(4), rs.getInt(5), rs.getBytes(6)));
+                }, key.getServerId(), key.getResolution().name(), TimeSeriesSchema.toTimestamp(since));
+            } catch (RuntimeException e) {
+                series.invalidate(key);
+                throw e;
+            }
+            created.markLoaded();
+            return created;
+        }
+    }
+
+    private Duration rollupRetention(Resolution resolution) {
+        return switch (resolution) {
+            case MINUTE -> properties.getMinuteRollupRetention();
+            case HOUR -> properties.getHourRollupRetention();
+            case DAY -> properties.getDayRollupRetention();
+        };
+    }
+}
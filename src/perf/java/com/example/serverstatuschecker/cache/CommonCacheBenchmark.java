@@ -0,0 +1,112 @@
+package com.example.serverstatuschecker.cache;
+
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommonCache under contention: seven reader threads against one writer, for id lookups,
+ * the all-statuses list view, and lookups while the status regions are cleared and reloaded.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonCacheBenchmark {
+
+    private static final int ENTRIES = 10_000;
+
+    private CommonCache cache;
+    private List<ServerStatus> statuses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new CommonCache(new CacheProperties());
+        Server server = new Server();
+        server.setId(1L);
+        server.setName("Benchmark Server");
+        statuses = new ArrayList<>(ENTRIES);
+        for (int i = 1; i <= ENTRIES; i++) {
+            ServerStatus status = new ServerStatus();
+            status.setId((long) i);
+            status.setUrl("http://target-" + i + ".example.com/");
+            status.setIsAvailable(true);
+            status.setMessage("Сервер доступен");
+            status.setServer(server);
+            statuses.add(status);
+            cache.putServerStatus(status);
+        }
+        cache.putAllServerStatuses(statuses, cache.getAllServerStatusesVersion());
+    }
+
+    @Benchmark
+    @Group("lookup")
+    @GroupThreads(7)
+    public ServerStatus lookupById() {
+        return cache.getServerStatusById(randomId());
+    }
+
+    @Benchmark
+    @Group("lookup")
+    @GroupThreads(1)
+    public void upsertDuringLookup() {
+        cache.upsertServerStatus(randomStatus());
+    }
+
+    @Benchmark
+    @Group("listView")
+    @GroupThreads(7)
+    public List<ServerStatus> readListView() {
+        return cache.getAllServerStatuses();
+    }
+
+    @Benchmark
+    @Group("listView")
+    @GroupThreads(1)
+    public void upsertDuringListRead() {
+        cache.upsertServerStatus(randomStatus());
+    }
+
+    @Benchmark
+    @Group("clear")
+    @GroupThreads(7)
+    public ServerStatus lookupDuringClear() {
+        return cache.getServerStatusById(randomId());
+    }
+
+    @Benchmark
+    @Group("clear")
+    @GroupThreads(1)
+    public void clearAndReload() {
+        cache.clearServerStatusCache();
+        cache.putAllServerStatuses(statuses, cache.getAllServerStatusesVersion());
+    }
+
+    private ServerStatus randomStatus() {
+        return statuses.get(ThreadLocalRandom.current().nextInt(ENTRIES));
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextInt(ENTRIES) + 1;
+    }
+}
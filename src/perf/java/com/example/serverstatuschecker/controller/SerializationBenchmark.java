@@ -0,0 +1,78 @@
+package com.example.serverstatuschecker.controller;
+
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of status lists the size of getAllServerStatuses responses, with an
+ * ObjectMapper configured like the Spring Boot one (java.time module, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ServerStatus> statuses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Server server = new Server();
+        server.setId(1L);
+        server.setName("Default Server");
+        Instant now = Instant.now();
+        statuses = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            ServerStatus status = new ServerStatus();
+            status.setId((long) i);
+            status.setUrl("http://target-" + i + ".example.com/");
+            status.setIsAvailable(i % 10 != 0);
+            status.setMessage(i % 10 != 0 ? "Сервер доступен" : "Сервер ответил с кодом: 503");
+            status.setCheckedAt(now.minusSeconds(i));
+            status.setServer(server);
+            statuses.add(status);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(statuses);
+    }
+
+    @Benchmark
+    public void writeStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), statuses);
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.serverstatuschecker.loadtest;
+
+import com.example.serverstatuschecker.ServerstatuscheckerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-loop load test of the whole application against {@link TargetFarm}, fully offline.
+ * <p>
+ * Requests are issued on a fixed schedule regardless of how fast earlier ones complete, and each
+ * latency is measured from the moment the request was due rather than when it was actually sent,
+ * so a stalled server shows up in the percentiles instead of silently lowering the offered rate.
+ * Requests that would exceed {@code --max-in-flight} are counted as rejected, not delayed.
+ * <p>
+ * Options are {@code key=value}, optionally prefixed with {@code --}: {@code rate} (req/s),
+ * {@code duration}, {@code warmup}, {@code mix} (e.g. {@code check=60,bulk=10,read=30}), {@code targets}
+ * (distinct URLs per kind), {@code kinds} (e.g. {@code fast=60,slow=10,timeout=5,error=10,flapping=15}),
+ * {@code bulk-size}, {@code max-in-flight}, {@code slow-ms}, {@code flap-period}. Any other key
+ * containing a dot is passed to the application as a property override.
+ */
+public final class LoadTest {
+
+    private static final Duration CLIENT_TIMEOUT = Duration.ofSeconds(60);
+    private static final long SHUTDOWN_GRACE_SECONDS = 30;
+    private static final String SERVER_NAME = "Default Server";
+
+    private final Map<String, String> options;
+    private final TargetFarm farm;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ExecutorService clientExecutor;
+    private final Semaphore inFlight;
+    private final Weighted<Operation> operations;
+    private final Weighted<TargetFarm.Kind> kinds;
+    private final int targets;
+    private final int bulkSize;
+    private final AtomicLong readSequence = new AtomicLong();
+
+    private LoadTest(Map<String, String> options, TargetFarm farm, int port) {
+        this.options = options;
+        this.farm = farm;
+        this.baseUrl = "http://127.0.0.1:" + port;
+        this.clientExecutor = Executors.newFixedThreadPool(4);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        this.inFlight = new Semaphore(intOption("max-in-flight"));
+        this.operations = Weighted.parse(options.get("mix"), name -> Operation.valueOf(name.toUpperCase()));
+        this.kinds = Weighted.parse(options.get("kinds"), name -> TargetFarm.Kind.valueOf(name.toUpperCase()));
+        this.targets = intOption("targets");
+        this.bulkSize = intOption("bulk-size");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = defaults();
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("server.port", "0");
+        overrides.put("tracing.enabled", "false");
+        overrides.put("probe.read-timeout-ms", "2000");
+        overrides.put("probe.connect-timeout-ms", "1000");
+        // Every farm target shares one loopback authority, so per-host shaping would cap the whole run.
+        overrides.put("probe.throttle.host-rate", "0");
+        overrides.put("probe.throttle.host-max-in-flight", "256");
+        for (String arg : args) {
+            if (!arg.contains("=")) {
+                continue;
+            }
+            String key = arg.substring(arg.startsWith("--") ? 2 : 0, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (options.containsKey(key)) {
+                options.put(key, value);
+            } else if (key.contains(".")) {
+                overrides.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+
+        long timeoutMs = Long.parseLong(String.valueOf(overrides.get("probe.read-timeout-ms"))) * 3;
+        try (TargetFarm farm = new TargetFarm(Long.parseLong(options.get("slow-ms")), timeoutMs,
+                Duration.parse("PT" + options.get("flap-period")).toMillis())) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerstatuscheckerApplication.class)
+                    .profiles("embedded")
+                    .properties(overrides)
+                    .run();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest test = new LoadTest(options, farm, port);
+            try {
+                test.run();
+            } finally {
+                test.clientExecutor.shutdownNow();
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, String> defaults() {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("rate", "100");
+        options.put("duration", "30s");
+        options.put("warmup", "5s");
+        options.put("mix", "check=60,bulk=10,read=30");
+        options.put("kinds", "fast=60,slow=10,timeout=5,error=10,flapping=15");
+        options.put("targets", "50");
+        options.put("bulk-size", "20");
+        options.put("max-in-flight", "512");
+        options.put("slow-ms", "800");
+        options.put("flap-period", "10s");
+        return options;
+    }
+
+    private void run() throws InterruptedException {
+        double rate = Double.parseDouble(options.get("rate"));
+        System.out.printf("Load test: %s req/s, warmup %s, duration %s, mix %s, kinds %s%n", options.get("rate"),
+                options.get("warmup"), options.get("duration"), options.get("mix"), options.get("kinds"));
+
+        drive(rate, durationOption("warmup"), newStats());
+        awaitDrained();
+
+        Map<Operation, OperationStats> stats = newStats();
+        long started = System.nanoTime();
+        drive(rate, durationOption("duration"), stats);
+        awaitDrained();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        OperationStats total = new OperationStats("total");
+        System.out.println(OperationStats.header());
+        for (OperationStats operationStats : stats.values()) {
+            System.out.println(operationStats.format(seconds));
+            operationStats.mergeInto(total);
+        }
+        System.out.println(total.format(seconds));
+    }
+
+    private void drive(double rate, Duration duration, Map<Operation, OperationStats> stats) {
+        if (duration.isZero()) {
+            return;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                return;
+            }
+            long delay;
+            while ((delay = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = operations.pick();
+            OperationStats operationStats = stats.get(operation);
+            if (!inFlight.tryAcquire()) {
+                operationStats.reject();
+                continue;
+            }
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        boolean success = error == null && response.statusCode() / 100 == 2;
+                        operationStats.record(System.nanoTime() - intended, success);
+                    });
+        }
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        int permits = intOption("max-in-flight");
+        if (!inFlight.tryAcquire(permits, SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            System.out.println("Some requests did not complete within " + SHUTDOWN_GRACE_SECONDS + "s");
+            return;
+        }
+        inFlight.release(permits);
+    }
+
+    private HttpRequest request(Operation operation) {
+        HttpRequest.Builder builder = switch (operation) {
+            case CHECK -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/server-status/check?url=" + encode(target())));
+            case BULK -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/server-status/bulk"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bulkBody()));
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + readPath()));
+        };
+        return builder.timeout(CLIENT_TIMEOUT).build();
+    }
+
+    private String readPath() {
+        return switch ((int) (readSequence.getAndIncrement() % 4)) {
+            case 0 -> "/api/server-status";
+            case 1 -> "/api/servers";
+            case 2 -> "/api/server-status/statuses-by-server?serverName=" + encode(SERVER_NAME);
+            default -> "/api/server-status?limit=100";
+        };
+    }
+
+    private String bulkBody() {
+        List<String> items = new ArrayList<>(bulkSize);
+        for (int i = 0; i < bulkSize; i++) {
+            items.add("{\"url\":\"" + target() + "\"}");
+        }
+        return "[" + String.join(",", items) + "]";
+    }
+
+    private String target() {
+        return farm.url(kinds.pick(), ThreadLocalRandom.current().nextInt(targets));
+    }
+
+    private static Map<Operation, OperationStats> newStats() {
+        Map<Operation, OperationStats> stats = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation.name().toLowerCase()));
+        }
+        return stats;
+    }
+
+    private int intOption(String key) {
+        return Integer.parseInt(options.get(key));
+    }
+
+    private Duration durationOption(String key) {
+        return Duration.parse("PT" + options.get(key));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private enum Operation {
+        CHECK,
+        BULK,
+        READ
+    }
+
+    private record Weighted<T>(List<T> values, int[] cumulative) {
+
+        static <T> Weighted<T> parse(String spec, Function<String, T> parser) {
+            List<T> values = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            for (String part : spec.split(",")) {
+                String[] entry = part.trim().split("[=:]");
+                int weight = Integer.parseInt(entry[1].trim());
+                if (weight > 0) {
+                    values.add(parser.apply(entry[0].trim()));
+                    weights.add(weight);
+                }
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("Empty weight spec: " + spec);
+            }
+            int[] cumulative = new int[weights.size()];
+            int sum = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += weights.get(i);
+                cumulative[i] = sum;
+            }
+            return new Weighted<>(values, cumulative);
+        }
+
+        T pick() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.serverstatuschecker.loadtest;
+
+import com.example.serverstatuschecker.timeseries.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+final class OperationStats {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        synchronized (latencies) {
+            latencies.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        }
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void reject() {
+        rejected.increment();
+    }
+
+    void mergeInto(OperationStats total) {
+        synchronized (latencies) {
+            synchronized (total.latencies) {
+                total.latencies.merge(latencies);
+            }
+        }
+        total.errors.add(errors.sum());
+        total.rejected.add(rejected.sum());
+    }
+
+    String format(double seconds) {
+        synchronized (latencies) {
+            long count = latencies.getTotalCount();
+            return String.format("%-8s %9d %8d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f", name, count,
+                    errors.sum(), rejected.sum(), count / seconds, millis(50), millis(90), millis(99),
+                    millis(99.9), millis(100));
+        }
+    }
+
+    static String header() {
+        return String.format("%-8s %9s %8s %9s %10s %9s %9s %9s %9s %9s", "op", "requests", "errors",
+                "rejected", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private double millis(double percentile) {
+        return latencies.valueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
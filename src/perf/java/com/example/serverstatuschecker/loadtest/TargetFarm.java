@@ -0,0 +1,92 @@
+package com.example.serverstatuschecker.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stub targets on the loopback interface. Every kind is served under its own path prefix
+ * and accepts any suffix, so one server stands in for as many distinct target URLs as needed.
+ */
+final class TargetFarm implements AutoCloseable {
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_INTERNAL_ERROR = 500;
+    private static final int HTTP_UNAVAILABLE = 503;
+    private static final int NO_BODY = -1;
+
+    enum Kind {
+        FAST,
+        SLOW,
+        TIMEOUT,
+        ERROR,
+        FLAPPING;
+
+        String path() {
+            return "/" + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long slowMs;
+    private final long timeoutMs;
+    private final long flapPeriodMs;
+
+    TargetFarm(long slowMs, long timeoutMs, long flapPeriodMs) throws IOException {
+        this.slowMs = slowMs;
+        this.timeoutMs = timeoutMs;
+        this.flapPeriodMs = flapPeriodMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "target-farm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Kind kind : Kind.values()) {
+            server.createContext(kind.path(), exchange -> respond(kind, exchange));
+        }
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url(Kind kind, int index) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + kind.path() + "/" + index;
+    }
+
+    private void respond(Kind kind, HttpExchange exchange) throws IOException {
+        try {
+            switch (kind) {
+                case SLOW -> Thread.sleep(slowMs);
+                case TIMEOUT -> Thread.sleep(timeoutMs);
+                default -> {
+                }
+            }
+            exchange.sendResponseHeaders(statusOf(kind), NO_BODY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private int statusOf(Kind kind) {
+        return switch (kind) {
+            case ERROR -> HTTP_INTERNAL_ERROR;
+            case FLAPPING -> (System.currentTimeMillis() / flapPeriodMs) % 2 == 0 ? HTTP_OK : HTTP_UNAVAILABLE;
+            default -> HTTP_OK;
+        };
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeConfig;
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /bulk probe path (ProbeEngine.probeAll over HttpProbeClient) against an in-process
+ * HTTP server on the loopback interface that answers every request after {@code delayMs}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkProbeBenchmark {
+
+    private static final int HTTP_OK = 200;
+    private static final int NO_BODY = -1;
+
+    @Param({"100"})
+    private int targets;
+
+    @Param({"0", "20"})
+    private int delayMs;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService probeExecutor;
+    private DnsCache dnsCache;
+    private ProbeThrottle throttle;
+    private ProbeEngine probeEngine;
+    private List<ProbeTarget> probeTargets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+                exchange.sendResponseHeaders(HTTP_OK, NO_BODY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        ProbeProperties properties = new ProbeProperties();
+        ProbeConfig probeConfig = new ProbeConfig();
+        probeExecutor = probeConfig.probeExecutor(properties);
+        HttpClient httpClient = probeConfig.probeHttpClient(properties, probeExecutor);
+        properties.getThrottle().setHostRate(0);
+        properties.getThrottle().setHostMaxInFlight(properties.getThrottle().getMaxInFlight());
+        dnsCache = new DnsCache(properties);
+        throttle = new ProbeThrottle(properties);
+        probeEngine = new ProbeEngine(new HttpProbeClient(httpClient, properties, dnsCache), properties,
+                new LatencyTracker(properties), new ProbeMetrics(new SimpleMeterRegistry(), properties),
+                new HostGuard(properties), throttle);
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/target/";
+        probeTargets = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            probeTargets.add(new ProbeTarget(baseUrl + i, ProbeMethod.HEAD));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        probeExecutor.shutdownNow();
+        dnsCache.shutdown();
+        throttle.shutdown();
+    }
+
+    @Benchmark
+    public List<ServerStatus> probeAll() {
+        return probeEngine.probeAll(probeTargets);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.serverstatuschecker.service;
+
+import com.example.serverstatuschecker.cache.CommonCache;
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link BaseService#executeWithCache} on a cache hit compared with a direct cache
+ * lookup, single-threaded and with eight threads sharing the request counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteWithCacheBenchmark {
+
+    private static final long STATUS_ID = 42L;
+
+    private CommonCache cache;
+    private CachedLookupService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new CommonCache(new CacheProperties());
+        ServerStatus status = new ServerStatus();
+        status.setId(STATUS_ID);
+        status.setUrl("http://example.com/");
+        cache.putServerStatus(status);
+        service = new CachedLookupService(new RequestCounterService(), cache);
+    }
+
+    @Benchmark
+    public ServerStatus directLookup() {
+        return cache.getServerStatusById(STATUS_ID);
+    }
+
+    @Benchmark
+    public ServerStatus executeWithCacheHit() {
+        return service.findStatus(STATUS_ID);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ServerStatus executeWithCacheHitContended() {
+        return service.findStatus(STATUS_ID);
+    }
+
+    static final class CachedLookupService extends BaseService {
+
+        CachedLookupService(RequestCounterService counterService, CommonCache cache) {
+            super(counterService, cache);
+        }
+
+        ServerStatus findStatus(long id) {
+            return executeWithCache(id, cache::getServerStatusById, cache::putServerStatus, () -> {
+                throw new IllegalStateException("Бенчмарк рассчитан только на попадания в кэш");
+            }, "Кэш найден для статуса id: {}");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.serverstatuschecker.aspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.serverstatuschecker.config.TracingProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoggingAspectTest {
+
+    private static final String METHOD = "ServerStatusService.getAllServerStatuses()";
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Signature signature;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+    private Level previousLevel;
+    private TracingProperties properties;
+    private LoggingAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+        properties = new TracingProperties();
+        aspect = new LoggingAspect(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void testUnsampledCallIsNotLogged() throws Throwable {
+
+        properties.setSampleRate(0);
+        when(joinPoint.proceed()).thenReturn("ok");
+
+
+        Object result = aspect.trace(joinPoint);
+
+
+        assertEquals("ok", result);
+        assertTrue(appender.list.isEmpty());
+        verify(joinPoint, never()).getArgs();
+    }
+
+    @Test
+    void testTimingModeLogsDurationOnly() throws Throwable {
+
+        properties.setSampleRate(1.0);
+        when(joinPoint.proceed()).thenReturn("ok");
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.toShortString()).thenReturn(METHOD);
+
+
+        aspect.trace(joinPoint);
+
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.startsWith("Method: " + METHOD + " completed in"), line);
+        assertFalse(line.contains("arguments"), line);
+        verify(joinPoint, never()).getArgs();
+    }
+
+    @Test
+    void testFullModeLogsCappedArgumentsAndResult() throws Throwable {
+
+        properties.setSampleRate(1.0);
+        properties.setMode(TracingProperties.Mode.FULL);
+        properties.setMaxArgLength(5);
+        when(joinPoint.proceed()).thenReturn("a very long result");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{new ArrayList<>(List.of(1, 2, 3)), "abc"});
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.toShortString()).thenReturn(METHOD);
+
+
+        aspect.trace(joinPoint);
+
+
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("with arguments: [ArrayList[size=3], abc]"), line);
+        assertTrue(line.endsWith("with result: a ver...(18 chars)"), line);
+    }
+
+    @Test
+    void testFailureIsLoggedEvenWhenNotSampled() throws Throwable {
+
+        properties.setSampleRate(0);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.toShortString()).thenReturn(METHOD);
+
+
+        assertThrows(IllegalStateException.class, () -> aspect.trace(joinPoint));
+
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.ERROR, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().endsWith("threw exception: boom"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.serverstatuschecker.cache;
+
+import com.example.serverstatuschecker.config.CacheProperties;
+import com.example.serverstatuschecker.dto.CacheRegionStats;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommonCacheTest {
+
+    private static final String URL = "HTTP://Example.com:80";
+    private static final String NORMALIZED_URL = "http://example.com/";
+    private static final String SERVER_NAME = "Default Server";
+
+    private CommonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CommonCache(new CacheProperties());
+    }
+
+    @Test
+    void testProbeResultsDoNotClashWithStatusIds() {
+
+        ServerStatus probed = new ServerStatus();
+        probed.setId(7L);
+        probed.setUrl(URL);
+        cache.putProbeResult(URL, probed);
+
+
+        assertSame(probed, cache.getProbeResult(NORMALIZED_URL));
+        assertNull(cache.getServerStatusById((long) URL.hashCode()));
+        assertNull(cache.getServerStatusById(7L));
+    }
+
+    @Test
+    void testStatsAreTrackedPerRegion() {
+
+        ServerStatus status = new ServerStatus();
+        status.setId(1L);
+        cache.putServerStatus(status);
+        cache.getServerStatusById(1L);
+        cache.getServerStatusById(2L);
+        cache.getServerById(1L);
+
+
+        CacheRegionStats statusStats = stats("status");
+        CacheRegionStats serverStats = stats("server");
+        assertEquals(1, statusStats.getHitCount());
+        assertEquals(1, statusStats.getMissCount());
+        assertEquals(0, serverStats.getHitCount());
+        assertEquals(1, serverStats.getMissCount());
+    }
+
+    @Test
+    void testClearServerStatusCache() {
+
+        ServerStatus status = new ServerStatus();
+        status.setId(1L);
+        cache.putServerStatus(status);
+        cache.putAllServerStatuses(List.of(status), cache.getAllServerStatusesVersion());
+        cache.putProbeResult(URL, status);
+
+
+        cache.clearServerStatusCache();
+
+
+        assertNull(cache.getServerStatusById(1L));
+        assertNull(cache.getAllServerStatuses());
+        assertNull(cache.getProbeResult(URL));
+    }
+
+    @Test
+    void testUpsertPatchesLoadedViewsOnly() {
+
+        ServerStatus first = status(1L);
+        ServerStatus second = status(2L);
+        cache.putAllServerStatuses(List.of(first), cache.getAllServerStatusesVersion());
+
+
+        cache.upsertServerStatus(second);
+        cache.removeServerStatus(1L);
+
+
+        assertEquals(List.of(second), cache.getAllServerStatuses());
+        assertNull(cache.getStatusesByServerName("Default Server"));
+    }
+
+    @Test
+    void testListTagChangesOnlyWithContent() {
+
+        assertNull(cache.getAllServerStatusesTag());
+        cache.putAllServerStatuses(List.of(status(1L)), cache.getAllServerStatusesVersion());
+
+
+        List<ServerStatus> served = cache.getAllServerStatuses();
+        String tag = cache.getAllServerStatusesTag();
+        String servedTag = cache.tagOfServerStatuses(served);
+        String repeatedTag = cache.getAllServerStatusesTag();
+        cache.upsertServerStatus(status(2L));
+        String changedTag = cache.getAllServerStatusesTag();
+
+
+        assertNotNull(tag);
+        assertEquals(tag, servedTag);
+        assertEquals(tag, repeatedTag);
+        assertNotEquals(tag, changedTag);
+        assertNull(cache.tagOfServerStatuses(List.of(status(1L))));
+    }
+
+    @Test
+    void testLoadOverlappingWriteIsNotCached() {
+
+        long loadVersion = cache.getAllServerStatusesVersion();
+        List<ServerStatus> staleRead = List.of(status(1L));
+        cache.upsertServerStatus(status(2L));
+
+
+        cache.putAllServerStatuses(staleRead, loadVersion);
+        List<ServerStatus> afterStaleLoad = cache.getAllServerStatuses();
+        cache.putAllServerStatuses(List.of(status(1L), status(2L)), cache.getAllServerStatusesVersion());
+
+
+        assertNull(afterStaleLoad);
+        assertEquals(2, cache.getAllServerStatuses().size());
+    }
+
+    @Test
+    void testNameKeyedLoadOverlappingWriteIsNotCached() {
+
+        Server server = new Server();
+        server.setName(SERVER_NAME);
+        ServerStatus written = status(2L);
+        written.setServer(server);
+        long loadVersion = cache.getStatusesByServerNameVersion(SERVER_NAME);
+        cache.upsertServerStatus(written);
+
+
+        cache.putStatusesByServerName(SERVER_NAME, List.of(status(1L)), loadVersion);
+
+
+        assertNull(cache.getStatusesByServerName(SERVER_NAME));
+    }
+
+    @Test
+    void testStatusListLargerThanMaxSizeIsNotCached() {
+
+        CacheProperties properties = new CacheProperties();
+        properties.getRegions().put("status-list", new CacheProperties.Region(Duration.ofMinutes(1), 2));
+        CommonCache bounded = new CommonCache(properties);
+
+
+        bounded.putAllServerStatuses(List.of(status(1L), status(2L), status(3L)),
+                bounded.getAllServerStatusesVersion());
+        List<ServerStatus> tooLarge = bounded.getAllServerStatuses();
+        bounded.putAllServerStatuses(List.of(status(1L), status(2L)), bounded.getAllServerStatusesVersion());
+        bounded.upsertServerStatus(status(2L));
+        List<ServerStatus> afterUpdate = bounded.getAllServerStatuses();
+        bounded.upsertServerStatus(status(3L));
+
+
+        assertNull(tooLarge);
+        assertEquals(2, afterUpdate.size());
+        assertNull(bounded.getAllServerStatuses(), "growing past max-size must unload the view");
+        assertNull(bounded.getAllServerStatusesTag());
+    }
+
+    private ServerStatus status(long id) {
+        ServerStatus status = new ServerStatus();
+        status.setId(id);
+        return status;
+    }
+
+    private CacheRegionStats stats(String region) {
+        return cache.getStats().stream()
+                .filter(stats -> stats.getRegion().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+}
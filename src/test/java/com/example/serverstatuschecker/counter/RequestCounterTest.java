@@ -0,0 +1,106 @@
+package com.example.serverstatuschecker.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCounterTest {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void testResetStartsNewPeriodWithoutLosingTotal() {
+
+        RequestCounter counter = new RequestCounter();
+        for (int i = 0; i < 3; i++) {
+            counter.increment();
+        }
+
+
+        long closed = counter.reset();
+        counter.increment();
+
+
+        assertEquals(3, closed);
+        assertEquals(1, counter.getCount());
+        assertEquals(4, counter.getTotal());
+    }
+
+    @Test
+    void testConcurrentResetsAddUpToTotal() throws Exception {
+
+        RequestCounter counter = new RequestCounter();
+        int writers = 4;
+        int incrementsPerWriter = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < incrementsPerWriter; j++) {
+                    counter.increment();
+                }
+                return null;
+            }));
+        }
+        Future<Long> resetter = executor.submit(() -> {
+            start.await();
+            long sum = 0;
+            while (writing.get()) {
+                long delta = counter.reset();
+                assertTrue(delta >= 0, "delta was " + delta);
+                sum += delta;
+            }
+            return sum;
+        });
+
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        long deltas = resetter.get(30, TimeUnit.SECONDS) + counter.reset();
+        executor.shutdown();
+
+
+        assertEquals((long) writers * incrementsPerWriter, counter.getTotal());
+        assertEquals(counter.getTotal(), deltas);
+        assertEquals(0, counter.getCount());
+    }
+
+    @Test
+    void testRatesFollowTicks() {
+
+        AtomicLong clock = new AtomicLong();
+        RequestCounter counter = new RequestCounter(clock::get);
+        for (int i = 0; i < 50; i++) {
+            counter.increment();
+        }
+
+
+        clock.addAndGet(TICK_NANOS);
+        double firstRate = counter.getOneMinuteRate();
+        double firstFifteenMinuteRate = counter.getFifteenMinuteRate();
+        clock.addAndGet(TICK_NANOS);
+        double decayedRate = counter.getOneMinuteRate();
+
+
+        assertEquals(10.0, firstRate, DELTA);
+        assertEquals(10.0, firstFifteenMinuteRate, DELTA);
+        assertTrue(decayedRate < firstRate && decayedRate > 0);
+    }
+}
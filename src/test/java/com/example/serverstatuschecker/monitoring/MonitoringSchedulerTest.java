@@ -0,0 +1,188 @@
+package com.example.serverstatuschecker.monitoring;
+
+import com.example.serverstatuschecker.config.MonitoringProperties;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.probe.ProbeEngine;
+import com.example.serverstatuschecker.probe.ProbeMethod;
+import com.example.serverstatuschecker.probe.ProbeTarget;
+import com.example.serverstatuschecker.repository.ServerRepository;
+import com.example.serverstatuschecker.service.ServerStatusService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MonitoringSchedulerTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String RECORDER_THREAD = "test-recorder";
+
+    @Mock
+    private ProbeEngine probeEngine;
+
+    @Mock
+    private ServerStatusService serverStatusService;
+
+    @Mock
+    private ServerRepository serverRepository;
+
+    private MonitoringProperties properties;
+    private ExecutorService recorder;
+    private MonitoringScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MonitoringProperties();
+        properties.setMinIntervalSeconds(1);
+        properties.setJitterRatio(0.1);
+        recorder = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, RECORDER_THREAD));
+        scheduler = new MonitoringScheduler(probeEngine, serverStatusService, serverRepository, properties, recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testNextCheckFollowsIntervalWithinJitter() {
+
+        MonitoredTarget target = new MonitoredTarget(1, 1, new ProbeTarget("http://example.com", ProbeMethod.HEAD),
+                INTERVAL_NANOS);
+        long slot = TimeUnit.SECONDS.toNanos(1000);
+        ScheduledCheck check = new ScheduledCheck(target, slot, slot);
+        long jitterBound = INTERVAL_NANOS / 10;
+
+
+        List<ScheduledCheck> next = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            next.add(scheduler.nextCheck(check, slot + TimeUnit.SECONDS.toNanos(1)));
+        }
+
+
+        for (ScheduledCheck scheduled : next) {
+            assertEquals(slot + INTERVAL_NANOS, scheduled.getSlotNanos());
+            assertTrue(Math.abs(scheduled.getDueAtNanos() - scheduled.getSlotNanos()) <= jitterBound);
+        }
+        assertTrue(next.stream().anyMatch(scheduled -> scheduled.getDueAtNanos() != scheduled.getSlotNanos()));
+    }
+
+    @Test
+    void testMissedSlotRunsImmediately() {
+
+        MonitoredTarget target = new MonitoredTarget(1, 1, new ProbeTarget("http://example.com", ProbeMethod.HEAD),
+                INTERVAL_NANOS);
+        long slot = TimeUnit.SECONDS.toNanos(1000);
+        long now = slot + 3 * INTERVAL_NANOS;
+
+
+        ScheduledCheck next = scheduler.nextCheck(new ScheduledCheck(target, slot, slot), now);
+
+
+        assertEquals(now, next.getSlotNanos());
+        assertTrue(next.getDueAtNanos() >= now);
+    }
+
+    @Test
+    void testConcurrentProbesCappedBySemaphore() {
+
+        properties.setMaxConcurrentProbes(2);
+        scheduler = new MonitoringScheduler(probeEngine, serverStatusService, serverRepository, properties, recorder);
+        List<CompletableFuture<ServerStatus>> probes = new CopyOnWriteArrayList<>();
+        AtomicBoolean hold = new AtomicBoolean(true);
+        when(serverRepository.findAll()).thenReturn(List.of(server(1), server(2), server(3), server(4)));
+        when(probeEngine.probeAsync(any(ProbeTarget.class))).thenAnswer(invocation -> {
+            CompletableFuture<ServerStatus> probe = new CompletableFuture<>();
+            probes.add(probe);
+            if (!hold.get()) {
+                probe.complete(new ServerStatus());
+            }
+            return probe;
+        });
+
+
+        scheduler.start();
+        verify(probeEngine, timeout(3000).times(2)).probeAsync(any(ProbeTarget.class));
+        verify(probeEngine, after(1500).times(2)).probeAsync(any(ProbeTarget.class));
+        int inFlightAtCap = scheduler.getStats().getInFlight();
+        probes.get(0).complete(new ServerStatus());
+        verify(probeEngine, timeout(3000).times(3)).probeAsync(any(ProbeTarget.class));
+        hold.set(false);
+        probes.forEach(probe -> probe.complete(new ServerStatus()));
+        scheduler.stop();
+
+
+        assertEquals(2, inFlightAtCap);
+    }
+
+    @Test
+    void testFailedRecordReleasesPermitAndReschedules() {
+
+        properties.setMaxConcurrentProbes(1);
+        scheduler = new MonitoringScheduler(probeEngine, serverStatusService, serverRepository, properties, recorder);
+        List<String> recordThreads = new CopyOnWriteArrayList<>();
+        when(serverRepository.findAll()).thenReturn(List.of(server(1)));
+        when(probeEngine.probeAsync(any(ProbeTarget.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new ServerStatus()));
+        when(serverStatusService.recordMonitoringResult(anyLong(), any(ProbeTarget.class), any(ServerStatus.class)))
+                .thenAnswer(invocation -> {
+            recordThreads.add(Thread.currentThread().getName());
+            throw new IllegalStateException("database unavailable");
+        });
+
+
+        scheduler.start();
+        verify(serverStatusService, timeout(5000).atLeast(2))
+                .recordMonitoringResult(anyLong(), any(ProbeTarget.class), any(ServerStatus.class));
+        scheduler.stop();
+
+
+        assertTrue(recordThreads.stream().allMatch(RECORDER_THREAD::equals), "recorded on " + recordThreads);
+        assertTrue(scheduler.getStats().getCompletedChecks() >= 2);
+    }
+
+    @Test
+    void testFailedProbeStartReleasesPermit() {
+
+        properties.setMaxConcurrentProbes(1);
+        scheduler = new MonitoringScheduler(probeEngine, serverStatusService, serverRepository, properties, recorder);
+        when(serverRepository.findAll()).thenReturn(List.of(server(1)));
+        when(probeEngine.probeAsync(any(ProbeTarget.class))).thenThrow(new IllegalStateException("engine stopped"));
+
+
+        scheduler.start();
+        verify(probeEngine, timeout(5000).atLeast(2)).probeAsync(any(ProbeTarget.class));
+        scheduler.stop();
+
+
+        assertEquals(0, scheduler.getStats().getInFlight());
+        verifyNoInteractions(serverStatusService);
+    }
+
+    private static Server server(long id) {
+        Server server = new Server();
+        server.setId(id);
+        server.setUrl("http://server-" + id + ".example.com/health");
+        server.setCheckIntervalSeconds(1);
+        server.setProbeMethod(ProbeMethod.HEAD);
+        return server;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.serverstatuschecker.persistence;
+
+import com.example.serverstatuschecker.config.ChangeOnlyProperties;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeOnlyFilterTest {
+
+    private static final String URL = "http://example.com";
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void testPersistsTransitionsAndHeartbeatsOnly() {
+
+        ChangeOnlyFilter filter = newFilter();
+
+
+        boolean first = persist(filter, status(URL, true, "Сервер доступен", 0));
+        boolean repeated = persist(filter, status(URL, true, "Сервер доступен", 1));
+        boolean down = persist(filter, status(URL, false, "Сервер ответил с кодом: 500", 2));
+        boolean stillDown = persist(filter, status(URL, false, "Сервер ответил с кодом: 500", 10));
+        boolean heartbeat = persist(filter, status(URL, false, "Сервер ответил с кодом: 500", 17));
+
+
+        assertTrue(first);
+        assertFalse(repeated);
+        assertTrue(down);
+        assertFalse(stillDown);
+        assertTrue(heartbeat);
+    }
+
+    @Test
+    void testTracksEachStoredUrlFormSeparately() {
+
+        ChangeOnlyFilter filter = newFilter();
+        String otherForm = "HTTP://Example.com:80/";
+        persist(filter, status(URL, true, "Сервер доступен", 0));
+
+
+        boolean otherFormFirst = persist(filter, status(otherForm, true, "Сервер доступен", 1));
+        boolean otherFormRepeated = persist(filter, status(otherForm, true, "Сервер доступен", 2));
+        boolean sameFormRepeated = persist(filter, status(URL, true, "Сервер доступен", 3));
+
+
+        assertTrue(otherFormFirst, "a URL form without stored rows needs its own first row");
+        assertFalse(otherFormRepeated);
+        assertFalse(sameFormRepeated);
+    }
+
+    @Test
+    void testStateAdvancesOnlyAfterWriteCommits() {
+
+        ChangeOnlyFilter filter = newFilter();
+        persist(filter, status(URL, true, "Сервер доступен", 0));
+        ServerStatus down = status(URL, false, "Сервер ответил с кодом: 500", 1);
+
+
+        boolean downFirst = filter.shouldPersist(down);
+        boolean downWhileWriting = filter.shouldPersist(status(URL, false, "Сервер ответил с кодом: 500", 2));
+        filter.failed(down);
+        boolean downAfterFailure = filter.shouldPersist(status(URL, false, "Сервер ответил с кодом: 500", 3));
+        boolean upAfterFailure = filter.shouldPersist(status(URL, true, "Сервер доступен", 3));
+
+
+        assertTrue(downFirst);
+        assertTrue(downWhileWriting, "an uncommitted row must not suppress the next one");
+        assertTrue(downAfterFailure);
+        assertTrue(upAfterFailure, "a failed write must not leave a stale state behind");
+    }
+
+    @Test
+    void testIgnoresServerOfResult() {
+
+        ChangeOnlyFilter filter = newFilter();
+        ServerStatus fromCheck = status(URL, true, "Сервер доступен", 0);
+        fromCheck.setServer(server(1L));
+        ServerStatus fromMonitoring = status(URL, true, "Сервер доступен", 1);
+        fromMonitoring.setServer(server(7L));
+        persist(filter, fromCheck);
+
+
+        boolean persisted = persist(filter, fromMonitoring);
+
+
+        assertFalse(persisted);
+    }
+
+    @Test
+    void testIgnoresStatusCodeWhichIsNotStored() {
+
+        ChangeOnlyFilter filter = newFilter();
+        ServerStatus ok = status(URL, true, "Сервер доступен", 0);
+        ok.setStatusCode(200);
+        ServerStatus noContent = status(URL, true, "Сервер доступен", 1);
+        noContent.setStatusCode(204);
+        persist(filter, ok);
+
+
+        boolean persisted = persist(filter, noContent);
+
+
+        assertFalse(persisted);
+    }
+
+    private static ChangeOnlyFilter newFilter() {
+        ChangeOnlyProperties properties = new ChangeOnlyProperties();
+        properties.setEnabled(true);
+        properties.setHeartbeat(Duration.ofMinutes(15));
+        return new ChangeOnlyFilter(properties, new SimpleMeterRegistry());
+    }
+
+    private static boolean persist(ChangeOnlyFilter filter, ServerStatus status) {
+        boolean persist = filter.shouldPersist(status);
+        if (persist) {
+            filter.stored(status);
+        }
+        return persist;
+    }
+
+    private static Server server(long id) {
+        Server server = new Server();
+        server.setId(id);
+        return server;
+    }
+
+    private static ServerStatus status(String url, boolean available, String message, long minute) {
+        ServerStatus status = new ServerStatus();
+        status.setUrl(url);
+        status.setIsAvailable(available);
+        status.setMessage(message);
+        status.setCheckedAt(START.plus(Duration.ofMinutes(minute)));
+        return status;
+    }
+}
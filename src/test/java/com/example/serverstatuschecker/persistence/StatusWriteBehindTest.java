@@ -0,0 +1,185 @@
+package com.example.serverstatuschecker.persistence;
+
+import com.example.serverstatuschecker.cache.CommonCache;
+import com.example.serverstatuschecker.config.WriteBehindProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.repository.ServerStatusRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatusWriteBehindTest {
+
+    @Mock
+    private ServerStatusRepository serverStatusRepository;
+
+    @Mock
+    private CommonCache cache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ServerStatus> saved = new CopyOnWriteArrayList<>();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private WriteBehindProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setRetryBackoffMs(1);
+    }
+
+    @Test
+    void testStopFlushesEverythingQueued() {
+
+        properties.setBatchSize(2);
+        savesSucceed();
+        StatusWriteBehind writeBehind = newWriteBehind();
+        writeBehind.start();
+        List<ServerStatus> submitted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            submitted.add(status("http://example.com/" + i));
+        }
+
+
+        submitted.forEach(status -> submit(writeBehind, status));
+        writeBehind.stop();
+
+
+        assertFalse(writeBehind.isRunning());
+        assertEquals(0, writeBehind.getQueueDepth());
+        assertEquals(5, saved.size());
+        assertTrue(saved.containsAll(submitted));
+        assertEquals(5, written.get());
+        verify(cache, times(5)).upsertServerStatus(any(ServerStatus.class));
+    }
+
+    @Test
+    void testFullQueueWritesOnCallerThread() {
+
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeoutMs(0);
+        savesSucceed();
+        StatusWriteBehind writeBehind = newWriteBehind();
+        ServerStatus queued = status("http://example.com/queued");
+        ServerStatus overflow = status("http://example.com/overflow");
+
+
+        submit(writeBehind, queued);
+        submit(writeBehind, overflow);
+
+
+        assertEquals(List.of(overflow), saved);
+        assertEquals(1, written.get());
+        assertEquals(1, writeBehind.getQueueDepth());
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    void testFailedSynchronousWriteRunsFailureCallback() {
+
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeoutMs(0);
+        when(serverStatusRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        StatusWriteBehind writeBehind = newWriteBehind();
+        submit(writeBehind, status("http://example.com/queued"));
+
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> submit(writeBehind, status("http://example.com/overflow")));
+
+
+        assertEquals(1, failed.get());
+        assertEquals(0, written.get());
+        verify(cache, never()).upsertServerStatus(any(ServerStatus.class));
+        verify(serverStatusRepository, times(1 + properties.getMaxRetries())).saveAll(anyList());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedThenWrittenRowByRow() {
+
+        properties.setMaxRetries(1);
+        ServerStatus bad = status("http://example.com/bad");
+        when(serverStatusRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ServerStatus> batch = invocation.getArgument(0);
+            batch.forEach(status -> status.setId(42L));
+            if (batch.contains(bad)) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            saved.addAll(batch);
+            return batch;
+        });
+        StatusWriteBehind writeBehind = newWriteBehind();
+        ServerStatus good = status("http://example.com/good");
+        submit(writeBehind, good);
+        submit(writeBehind, bad);
+
+
+        writeBehind.stop();
+
+
+        assertEquals(List.of(good), saved);
+        assertEquals(1, written.get());
+        assertEquals(1, failed.get());
+        assertNull(bad.getId());
+        verify(serverStatusRepository, times(4)).saveAll(anyList());
+    }
+
+    @Test
+    void testSubmitAfterStopIsRejected() {
+
+        StatusWriteBehind writeBehind = newWriteBehind();
+        writeBehind.start();
+        writeBehind.stop();
+
+
+        assertThrows(IllegalStateException.class, () -> submit(writeBehind, status("http://example.com/late")));
+
+
+        assertEquals(1, failed.get());
+        assertEquals(0, writeBehind.getQueueDepth());
+        verifyNoInteractions(serverStatusRepository);
+    }
+
+    private StatusWriteBehind newWriteBehind() {
+        return new StatusWriteBehind(serverStatusRepository, cache, transactionManager, properties,
+                new SimpleMeterRegistry());
+    }
+
+    private void savesSucceed() {
+        when(serverStatusRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ServerStatus> batch = invocation.getArgument(0);
+            saved.addAll(batch);
+            return batch;
+        });
+    }
+
+    private void submit(StatusWriteBehind writeBehind, ServerStatus status) {
+        writeBehind.submit(status, written::incrementAndGet, failed::incrementAndGet);
+    }
+
+    private static ServerStatus status(String url) {
+        ServerStatus status = new ServerStatus();
+        status.setUrl(url);
+        return status;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DnsCacheTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private DnsCache dnsCache;
+
+    @AfterEach
+    void tearDown() {
+        dnsCache.shutdown();
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneResolverCall() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        dnsCache = new DnsCache(new ProbeProperties(), host -> {
+            lookups.incrementAndGet();
+            awaitQuietly(release);
+            return new InetAddress[]{InetAddress.getLoopbackAddress()};
+        });
+
+        CompletableFuture<InetAddress[]> first = dnsCache.resolve("example.com");
+        CompletableFuture<InetAddress[]> second = dnsCache.resolve("EXAMPLE.com");
+        release.countDown();
+
+
+        first.join();
+        second.join();
+        dnsCache.resolve("example.com").join();
+
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void testFailedLookupIsCachedAsNegative() {
+
+        dnsCache = new DnsCache(new ProbeProperties(), host -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException(host);
+        });
+
+
+        CompletionException first = assertThrows(CompletionException.class,
+                () -> dnsCache.resolve("missing.invalid").join());
+        CompletionException second = assertThrows(CompletionException.class,
+                () -> dnsCache.resolve("missing.invalid").join());
+
+
+        assertInstanceOf(UnknownHostException.class, first.getCause());
+        assertInstanceOf(UnknownHostException.class, second.getCause());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void testPositiveTtlCappedAtJvmAddressCache() {
+
+        dnsCache = new DnsCache(new ProbeProperties(), host -> new InetAddress[0]);
+
+
+        Duration capped = DnsCache.capPositiveTtl(Duration.ofSeconds(60), 30);
+        Duration shorter = DnsCache.capPositiveTtl(Duration.ofSeconds(10), 30);
+        Duration cachedForever = DnsCache.capPositiveTtl(Duration.ofSeconds(60), -1);
+
+
+        assertEquals(Duration.ofSeconds(30), capped);
+        assertEquals(Duration.ofSeconds(10), shorter);
+        assertEquals(Duration.ofSeconds(60), cachedForever);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostGuardTest {
+
+    private static final String URL = "http://dead.example.com/health";
+
+    private final AtomicLong clock = new AtomicLong();
+    private ProbeProperties properties;
+    private HostGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProbeProperties();
+        properties.getBreaker().setFailureThreshold(3);
+        properties.getBreaker().setOpenDuration(Duration.ofSeconds(30));
+        properties.getAdaptive().setMinSamples(10);
+        guard = new HostGuard(properties, clock::get);
+    }
+
+    @Test
+    void testOpenCircuitShortCircuitsUntilTrial() {
+
+        for (int i = 0; i < 3; i++) {
+            guard.record(guard.admit(URL), ProbeResult.failure(URL, "Connection refused", 0));
+        }
+
+
+        HostGuard.Admission rejected = guard.admit(URL);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        HostGuard.Admission trial = guard.admit(URL);
+        HostGuard.Admission duringTrial = guard.admit(URL);
+        guard.record(trial, ProbeResult.failure(URL, "Connection refused", 0));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        HostGuard.Admission afterFailedTrial = guard.admit(URL);
+
+
+        assertFalse(rejected.isAllowed());
+        assertTrue(rejected.getRejection().contains("Connection refused"));
+        assertTrue(trial.isAllowed());
+        assertTrue(trial.isTrial());
+        assertFalse(duringTrial.isAllowed());
+        assertFalse(afterFailedTrial.isAllowed(), "open period should double after a failed trial");
+    }
+
+    @Test
+    void testAnsweringTrialClosesCircuit() {
+
+        for (int i = 0; i < 3; i++) {
+            guard.record(guard.admit(URL), ProbeResult.failure(URL, "Connection refused", 0));
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+
+        HostGuard.Admission trial = guard.admit(URL);
+        guard.record(trial, answered(503, TimeUnit.MILLISECONDS.toNanos(20)));
+
+
+        assertTrue(guard.admit(URL).isAllowed());
+        assertEquals("CLOSED", guard.getHosts().get(0).getCircuit());
+    }
+
+    @Test
+    void testTimeoutFollowsObservedLatency() {
+
+        for (int i = 0; i < 10; i++) {
+            guard.record(guard.admit(URL), answered(200, TimeUnit.MILLISECONDS.toNanos(200)));
+        }
+
+
+        Duration timeout = guard.admit(URL).getTimeout();
+
+
+        assertTrue(timeout.toMillis() >= 600 && timeout.toMillis() < 700, "timeout was " + timeout);
+    }
+
+    private static ProbeResult answered(int statusCode, long ttfbNanos) {
+        return new ProbeResult(URL, statusCode == 200, statusCode, "",
+                new ProbeTimings(null, null, null, ttfbNanos, ttfbNanos));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpProbeClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final Map<String, Integer> statusByMethod = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private DnsCache dnsCache;
+    private HttpProbeClient client;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String method = exchange.getRequestMethod();
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            requests.add(range != null ? method + " " + range : method);
+            exchange.sendResponseHeaders(statusByMethod.getOrDefault(method, 200), -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/health";
+        ProbeProperties properties = new ProbeProperties();
+        dnsCache = new DnsCache(properties, host -> new InetAddress[]{InetAddress.getLoopbackAddress()});
+        client = new HttpProbeClient(HttpClient.newHttpClient(), properties, dnsCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        dnsCache.shutdown();
+    }
+
+    @Test
+    void testHeadRejectedWith405FallsBackToGetAndIsRemembered() {
+
+        statusByMethod.put("HEAD", 405);
+
+
+        ProbeResult first = client.probe(url, ProbeMethod.HEAD, TIMEOUT).join();
+        ProbeResult second = client.probe(url, ProbeMethod.HEAD, TIMEOUT).join();
+
+
+        assertTrue(first.isAvailable());
+        assertEquals(200, first.getStatusCode());
+        assertTrue(second.isAvailable());
+        assertEquals(List.of("HEAD", "GET", "GET"), requests, "the host should not be sent HEAD again");
+    }
+
+    @Test
+    void testHeadRejectedWith501FallsBackToGet() {
+
+        statusByMethod.put("HEAD", 501);
+
+
+        ProbeResult result = client.probe(url, ProbeMethod.HEAD, TIMEOUT).join();
+
+
+        assertTrue(result.isAvailable());
+        assertEquals(List.of("HEAD", "GET"), requests);
+    }
+
+    @Test
+    void testAnsweredHeadIsNotRetried() {
+
+        statusByMethod.put("HEAD", 503);
+
+
+        ProbeResult result = client.probe(url, ProbeMethod.HEAD, TIMEOUT).join();
+
+
+        assertFalse(result.isAvailable());
+        assertEquals(503, result.getStatusCode());
+        assertEquals(List.of("HEAD"), requests);
+    }
+
+    @Test
+    void testRangeProbeAsksForFirstByteOnly() {
+
+        ProbeResult result = client.probe(url, ProbeMethod.RANGE, TIMEOUT).join();
+
+
+        assertTrue(result.isAvailable());
+        assertEquals(List.of("GET bytes=0-0"), requests);
+    }
+
+    @Test
+    void testSlowLookupFailsProbeAtTimeout() {
+
+        CountDownLatch release = new CountDownLatch(1);
+        DnsCache slowDns = new DnsCache(new ProbeProperties(), host -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new InetAddress[]{InetAddress.getLoopbackAddress()};
+        });
+        HttpProbeClient slowClient = new HttpProbeClient(HttpClient.newHttpClient(), new ProbeProperties(), slowDns);
+
+
+        ProbeResult result = slowClient.probe(url, ProbeMethod.HEAD, Duration.ofMillis(100))
+                .orTimeout(5, TimeUnit.SECONDS).join();
+        release.countDown();
+        slowDns.shutdown();
+
+
+        assertFalse(result.isAvailable());
+        assertTrue(result.isProbed());
+        assertEquals("Истекло время разрешения имени хоста", result.getMessage());
+        assertTrue(requests.isEmpty());
+    }
+}
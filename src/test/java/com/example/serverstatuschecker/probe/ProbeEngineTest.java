@@ -0,0 +1,152 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbeEngineTest {
+
+    private static final String REQUEST_TIMED_OUT = "Не удалось подключиться: request timed out";
+
+    private final List<CompletableFuture<ProbeResult>> requests = new ArrayList<>();
+    private ProbeProperties properties;
+    private ProbeThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProbeProperties();
+        properties.getBulk().setDeadlineMs(200);
+        properties.getThrottle().setHostMaxInFlight(1);
+        properties.getThrottle().setHostRate(0);
+        throttle = new ProbeThrottle(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        throttle.shutdown();
+    }
+
+    @Test
+    void testDeadlineCancelsRequestsAndReportsNotProbed() {
+
+        ProbeEngine engine = engine((url, method, timeout) -> {
+            CompletableFuture<ProbeResult> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        });
+
+
+        List<ServerStatus> results = engine.probeAll(List.of(
+                new ProbeTarget("http://slow.example.com/1", ProbeMethod.GET),
+                new ProbeTarget("http://slow.example.com/2", ProbeMethod.GET)));
+
+
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(ServerStatus::isNotProbed));
+        assertTrue(results.stream().noneMatch(ServerStatus::isAvailable));
+        assertFalse(requests.isEmpty());
+        assertTrue(requests.stream().allMatch(CompletableFuture::isCancelled));
+        assertEquals(0, throttle.getInFlight());
+        assertEquals(0, throttle.getQueued());
+    }
+
+    @Test
+    void testSingleProbeIsBoundedByDeadline() {
+
+        CompletableFuture<ProbeResult> request = new CompletableFuture<>();
+        ProbeEngine engine = engine((url, method, timeout) -> request);
+
+
+        ServerStatus result = engine.probe(new ProbeTarget("http://slow.example.com/", ProbeMethod.GET));
+
+
+        assertTrue(result.isNotProbed());
+        assertTrue(request.isCancelled());
+        assertEquals(0, throttle.getInFlight());
+    }
+
+    @Test
+    void testBulkStartsAtMostMaxConcurrencyTakingHostsInTurn() {
+
+        properties.getBulk().setMaxConcurrency(2);
+        properties.getThrottle().setHostMaxInFlight(8);
+        List<String> started = new ArrayList<>();
+        ProbeEngine engine = engine((url, method, timeout) -> {
+            started.add(url);
+            return new CompletableFuture<>();
+        });
+
+
+        List<ServerStatus> results = engine.probeAll(List.of(
+                new ProbeTarget("http://a.example.com/1", ProbeMethod.GET),
+                new ProbeTarget("http://a.example.com/2", ProbeMethod.GET),
+                new ProbeTarget("http://a.example.com/3", ProbeMethod.GET),
+                new ProbeTarget("http://b.example.com/1", ProbeMethod.GET)));
+
+
+        assertEquals(List.of("http://a.example.com/1", "http://b.example.com/1"), started);
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(ServerStatus::isNotProbed));
+        assertEquals(0, throttle.getInFlight());
+    }
+
+    @Test
+    void testThrottleRejectionIsNotProbed() {
+
+        properties.getThrottle().setHostMaxQueued(1);
+        ProbeEngine engine = engine((url, method, timeout) -> new CompletableFuture<>());
+        engine.probeAsync(new ProbeTarget("http://busy.example.com/1", ProbeMethod.GET));
+        engine.probeAsync(new ProbeTarget("http://busy.example.com/2", ProbeMethod.GET));
+
+
+        ServerStatus rejected = engine.probe(new ProbeTarget("http://busy.example.com/3", ProbeMethod.GET));
+
+
+        assertTrue(rejected.isNotProbed());
+        assertNull(rejected.getStatusCode());
+        assertTrue(rejected.getMessage().startsWith("Проверка не выполнена"));
+    }
+
+    @Test
+    void testTimedOutProbesOpenCircuit() {
+
+        properties.getBreaker().setFailureThreshold(2);
+        List<Duration> timeouts = new ArrayList<>();
+        ProbeEngine engine = engine((url, method, timeout) -> {
+            timeouts.add(timeout);
+            return CompletableFuture.completedFuture(ProbeResult.failure(url, REQUEST_TIMED_OUT, 0));
+        });
+        ProbeTarget target = new ProbeTarget("http://slow.example.com/health", ProbeMethod.GET);
+
+
+        ServerStatus first = engine.probe(target);
+        ServerStatus second = engine.probe(target);
+        ServerStatus shortCircuited = engine.probe(target);
+
+
+        assertFalse(first.isAvailable());
+        assertEquals(REQUEST_TIMED_OUT, first.getMessage());
+        assertNull(first.getStatusCode());
+        assertEquals(REQUEST_TIMED_OUT, second.getMessage());
+        assertEquals(2, timeouts.size(), "an open circuit should not send requests");
+        assertTrue(timeouts.stream().allMatch(Duration.ofMillis(properties.getReadTimeoutMs())::equals));
+        assertFalse(shortCircuited.isAvailable());
+        assertTrue(shortCircuited.getMessage().endsWith(REQUEST_TIMED_OUT));
+        assertEquals(0, throttle.getInFlight());
+    }
+
+    private ProbeEngine engine(ProbeClient client) {
+        return new ProbeEngine(client, properties, new LatencyTracker(properties),
+                new ProbeMetrics(new SimpleMeterRegistry(), properties), new HostGuard(properties), throttle);
+    }
+}
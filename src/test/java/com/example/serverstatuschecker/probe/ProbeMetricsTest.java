@@ -0,0 +1,43 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbeMetricsTest {
+
+    @Test
+    void testHostsBeyondLimitShareOtherTag() {
+
+        ProbeProperties properties = new ProbeProperties();
+        properties.getMetrics().setMaxTargets(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProbeMetrics metrics = new ProbeMetrics(registry, properties);
+
+
+        for (int i = 0; i < 50; i++) {
+            metrics.record(answered("http://host-" + i + ".example.com/health"));
+        }
+        metrics.record(answered("http://host-0.example.com/other"));
+
+
+        Set<String> targets = registry.find("probe.duration").timers().stream()
+                .map(timer -> timer.getId().getTag("target"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("host-0.example.com", "host-1.example.com", "other"), targets);
+        Timer other = registry.find("probe.duration").tag("target", "other").timer();
+        assertNotNull(other);
+        assertEquals(48, other.count());
+        assertEquals(2, registry.find("probe.duration").tag("target", "host-0.example.com").timer().count());
+    }
+
+    private static ProbeResult answered(String url) {
+        return new ProbeResult(url, true, 200, "", new ProbeTimings(null, null, null, 1_000_000L, 2_000_000L));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.config.ProbeProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProbeThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private ProbeThrottle throttle;
+
+    @AfterEach
+    void tearDown() {
+        throttle.shutdown();
+    }
+
+    @Test
+    void testSaturatedHostDoesNotBlockOtherHosts() {
+
+        ProbeProperties properties = new ProbeProperties();
+        properties.getThrottle().setHostMaxInFlight(1);
+        properties.getThrottle().setHostRate(0);
+        throttle = new ProbeThrottle(properties, clock::get);
+
+
+        CompletableFuture<ProbeThrottle.Permit> first = throttle.acquire("http://a.example.com/1");
+        CompletableFuture<ProbeThrottle.Permit> queued = throttle.acquire("http://a.example.com/2");
+        CompletableFuture<ProbeThrottle.Permit> otherHost = throttle.acquire("http://b.example.com/1");
+        boolean queuedBeforeRelease = !queued.isDone();
+        first.join().release();
+
+
+        assertTrue(queuedBeforeRelease);
+        assertTrue(otherHost.isDone());
+        assertTrue(queued.isDone());
+        assertEquals(2, throttle.getInFlight());
+    }
+
+    @Test
+    void testTokenBucketDelaysBurstBeyondCapacity() throws Exception {
+
+        ProbeProperties properties = new ProbeProperties();
+        properties.getThrottle().setHostRate(10);
+        properties.getThrottle().setHostBurst(1);
+        throttle = new ProbeThrottle(properties, clock::get);
+
+
+        CompletableFuture<ProbeThrottle.Permit> first = throttle.acquire("http://a.example.com/1");
+        CompletableFuture<ProbeThrottle.Permit> second = throttle.acquire("http://a.example.com/2");
+        boolean delayed = !second.isDone();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+
+        assertTrue(first.isDone());
+        assertTrue(delayed);
+        assertNotNull(awaitPermit(second));
+    }
+
+    @Test
+    void testCancelledWaiterLeavesQueue() {
+
+        ProbeProperties properties = new ProbeProperties();
+        properties.getThrottle().setHostMaxInFlight(1);
+        properties.getThrottle().setHostRate(0);
+        throttle = new ProbeThrottle(properties, clock::get);
+        CompletableFuture<ProbeThrottle.Permit> first = throttle.acquire("http://a.example.com/1");
+        CompletableFuture<ProbeThrottle.Permit> abandoned = throttle.acquire("http://a.example.com/2");
+        CompletableFuture<ProbeThrottle.Permit> next = throttle.acquire("http://a.example.com/3");
+
+
+        abandoned.cancel(true);
+        int queuedAfterCancel = throttle.getQueued();
+        first.join().release();
+
+
+        assertEquals(1, queuedAfterCancel);
+        assertTrue(next.isDone(), "the permit must skip the cancelled waiter");
+        assertEquals(0, throttle.getQueued());
+        assertEquals(1, throttle.getInFlight());
+    }
+
+    private static ProbeThrottle.Permit awaitPermit(CompletableFuture<ProbeThrottle.Permit> future)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.serverstatuschecker.probe;
+
+import com.example.serverstatuschecker.dto.SingleFlightStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final String KEY = "http://example.com/";
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute(KEY, () -> {
+            entered.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        }));
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> singleFlight.execute(KEY, executions::incrementAndGet));
+        while (singleFlight.stats().getCoalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+
+        assertEquals(1, leader.get(1, TimeUnit.SECONDS));
+        assertEquals(1, follower.get(1, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        SingleFlightStats stats = singleFlight.stats();
+        assertEquals(1, stats.getStarted());
+        assertEquals(1, stats.getCoalesced());
+        assertEquals(0, stats.getInFlight());
+        executor.shutdown();
+    }
+
+    @Test
+    void testAsyncCallIsReleasedAfterCompletion() {
+
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+
+        CompletableFuture<Integer> first = singleFlight.executeAsync(KEY, () -> pending);
+        CompletableFuture<Integer> second = singleFlight.executeAsync(KEY, () -> CompletableFuture.completedFuture(2));
+        pending.complete(1);
+        CompletableFuture<Integer> third = singleFlight.executeAsync(KEY, () -> CompletableFuture.completedFuture(3));
+
+
+        assertEquals(1, first.join());
+        assertEquals(1, second.join());
+        assertEquals(3, third.join());
+        assertEquals(1, singleFlight.stats().getCoalesced());
+    }
+
+    @Test
+    void testCallIsCancelledOnlyWhenEveryCallerGaveUp() {
+
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        CompletableFuture<Integer> first = singleFlight.executeAsync(KEY, () -> pending);
+        CompletableFuture<Integer> second = singleFlight.executeAsync(KEY, () -> CompletableFuture.completedFuture(2));
+
+
+        first.cancel(true);
+        boolean cancelledWhileShared = pending.isCancelled();
+        second.cancel(true);
+
+
+        assertFalse(cancelledWhileShared);
+        assertTrue(pending.isCancelled());
+        assertEquals(0, singleFlight.stats().getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.serverstatuschecker.repository;
+
+import com.example.serverstatuschecker.dto.ServerStatusFilter;
+import com.example.serverstatuschecker.model.Server;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ServerStatusSpecificationsTest {
+
+    private static final String URL_A = "http://a.example.com";
+    private static final String URL_B = "http://b.example.com";
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private ServerRepository serverRepository;
+
+    @Autowired
+    private ServerStatusRepository serverStatusRepository;
+
+    private ServerStatus alphaAtT0;
+    private ServerStatus alphaAtT1;
+    private ServerStatus betaAtT1;
+    private ServerStatus alphaAtT2;
+
+    @BeforeEach
+    void setUp() {
+        Server alpha = server("alpha");
+        Server beta = server("beta");
+        alphaAtT0 = status(alpha, URL_A, T0);
+        alphaAtT1 = status(alpha, URL_A, T0.plusSeconds(60));
+        betaAtT1 = status(beta, URL_B, T0.plusSeconds(60));
+        alphaAtT2 = status(alpha, URL_B, T0.plusSeconds(120));
+    }
+
+    @Test
+    void testEmptyFilterMatchesEverything() {
+
+        ServerStatusFilter filter = new ServerStatusFilter();
+
+
+        List<ServerStatus> result = find(filter, null);
+
+
+        assertEquals(List.of(alphaAtT0, alphaAtT1, betaAtT1, alphaAtT2), result);
+    }
+
+    @Test
+    void testServerNameAndUrlAreCombined() {
+
+        ServerStatusFilter byServer = new ServerStatusFilter("alpha", null, null, null);
+        ServerStatusFilter byServerAndUrl = new ServerStatusFilter("alpha", URL_B, null, null);
+
+
+        List<ServerStatus> serverOnly = find(byServer, null);
+        List<ServerStatus> serverAndUrl = find(byServerAndUrl, null);
+
+
+        assertEquals(List.of(alphaAtT0, alphaAtT1, alphaAtT2), serverOnly);
+        assertEquals(List.of(alphaAtT2), serverAndUrl);
+    }
+
+    @Test
+    void testTimeRangeIncludesFromAndExcludesTo() {
+
+        ServerStatusFilter filter = new ServerStatusFilter(null, null, T0.plusSeconds(60), T0.plusSeconds(120));
+
+
+        List<ServerStatus> result = find(filter, null);
+
+
+        assertEquals(List.of(alphaAtT1, betaAtT1), result);
+    }
+
+    @Test
+    void testCursorSkipsRowsUpToAfterId() {
+
+        ServerStatusFilter filter = new ServerStatusFilter(null, URL_A, null, null);
+
+
+        List<ServerStatus> result = find(filter, alphaAtT0.getId());
+
+
+        assertEquals(List.of(alphaAtT1), result);
+    }
+
+    private List<ServerStatus> find(ServerStatusFilter filter, Long afterId) {
+        return serverStatusRepository.findAll(ServerStatusSpecifications.matching(filter, afterId), Sort.by("id"));
+    }
+
+    private Server server(String name) {
+        Server server = new Server();
+        server.setName(name);
+        return serverRepository.save(server);
+    }
+
+    private ServerStatus status(Server server, String url, Instant checkedAt) {
+        ServerStatus status = new ServerStatus();
+        status.setServer(server);
+        status.setUrl(url);
+        status.setIsAvailable(true);
+        status.setCheckedAt(checkedAt);
+        return serverStatusRepository.save(status);
+    }
+}
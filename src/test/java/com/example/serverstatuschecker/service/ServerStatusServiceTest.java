@@ -2,18 +2,34 @@ package com.example.serverstatuschecker.service;
 
 import com.example.serverstatuschecker.cache.CommonCache;
 import com.example.serverstatuschecker.dto.ServerStatusDto;
+import com.example.serverstatuschecker.dto.StatusHistory;
+import com.example.serverstatuschecker.dto.TaggedList;
 import com.example.serverstatuschecker.model.Server;
 import com.example.serverstatuschecker.model.ServerStatus;
+import com.example.serverstatuschecker.persistence.ChangeOnlyFilter;
+import com.example.serverstatuschecker.persistence.StatusWriteBehind;
+import com.example.serverstatuschecker.probe.ProbeEngine;
+import com.example.serverstatuschecker.probe.ProbeMethod;
+import com.example.serverstatuschecker.probe.ProbeTarget;
 import com.example.serverstatuschecker.repository.ServerRepository;
 import com.example.serverstatuschecker.repository.ServerStatusRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.example.serverstatuschecker.stream.StatusStream;
+import com.example.serverstatuschecker.timeseries.TimeSeriesStore;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +37,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,9 +49,8 @@ public class ServerStatusServiceTest {
     private static final String URL_1 = "http://example.com";
     private static final String URL_2 = "http://test.com";
     private static final String MESSAGE_AVAILABLE = "Сервер доступен";
-    private static final String MESSAGE_UNAVAILABLE = "Сервер ответил с кодом: 500";
     private static final Long STATUS_ID_1 = 1L;
-    private static final Long STATUS_ID_2 = 2L;
+    private static final ProbeTarget TARGET = new ProbeTarget(URL_1, ProbeMethod.HEAD);
 
     @Mock
     private ServerRepository serverRepository;
@@ -44,6 +61,27 @@ public class ServerStatusServiceTest {
     @Mock
     private CommonCache cache;
 
+    @Mock
+    private RequestCounterService counterService;
+
+    @Mock
+    private ProbeEngine probeEngine;
+
+    @Mock
+    private StatusWriteBehind writeBehind;
+
+    @Mock
+    private TimeSeriesStore timeSeries;
+
+    @Mock
+    private StatusStream statusStream;
+
+    @Mock
+    private ChangeOnlyFilter changeOnly;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private Server defaultServer;
 
@@ -62,41 +100,25 @@ public class ServerStatusServiceTest {
     @InjectMocks
     private ServerStatusService serverStatusService;
 
-    @BeforeEach
-    void setUp() {
-        when(defaultServer.getId()).thenReturn(SERVER_ID);
-        when(defaultServer.getName()).thenReturn(DEFAULT_SERVER_NAME);
-
-        when(dto1.getUrl()).thenReturn(URL_1);
-        when(dto1.isAvailable()).thenReturn(true);
-        when(dto1.getMessage()).thenReturn(MESSAGE_AVAILABLE);
-
-        when(dto2.getUrl()).thenReturn(URL_2);
-        when(dto2.isAvailable()).thenReturn(false);
-        when(dto2.getMessage()).thenReturn(MESSAGE_UNAVAILABLE);
-
-        when(status1.getId()).thenReturn(STATUS_ID_1);
-        when(status1.getUrl()).thenReturn(URL_1);
-        when(status1.isAvailable()).thenReturn(true);
-        when(status1.getMessage()).thenReturn(MESSAGE_AVAILABLE);
-        when(status1.getServer()).thenReturn(defaultServer);
-
-        when(status2.getId()).thenReturn(STATUS_ID_2);
-        when(status2.getUrl()).thenReturn(URL_2);
-        when(status2.isAvailable()).thenReturn(false);
-        when(status2.getMessage()).thenReturn(MESSAGE_UNAVAILABLE);
-        when(status2.getServer()).thenReturn(defaultServer);
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
     void testCheckServerStatusesSuccess() {
 
         List<ServerStatusDto> requests = Arrays.asList(dto1, dto2);
+        when(dto1.getUrl()).thenReturn(URL_1);
+        when(dto2.getUrl()).thenReturn(URL_2);
+        when(changeOnly.shouldPersist(any(ServerStatus.class))).thenReturn(true);
         when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.of(defaultServer));
-        when(cache.getServerStatusById(anyLong())).thenReturn(null);
+        when(cache.getProbeResult(anyString())).thenReturn(null);
+        when(probeEngine.probeAll(anyList()))
+                .thenReturn(Arrays.asList(new ServerStatus(), new ServerStatus()));
         when(serverStatusRepository.saveAll(anyList())).thenReturn(Arrays.asList(status1, status2));
-        when(serverStatusRepository.findAll()).thenReturn(Arrays.asList(status1, status2));
-        when(serverStatusRepository.findByServerName(DEFAULT_SERVER_NAME)).thenReturn(Arrays.asList(status1, status2));
 
 
         List<ServerStatus> result = serverStatusService.checkServerStatuses(requests);
@@ -107,16 +129,17 @@ public class ServerStatusServiceTest {
         assertEquals(status2, result.get(1));
         verify(serverRepository, times(1)).findById(SERVER_ID);
         verify(serverStatusRepository, times(1)).saveAll(anyList());
-        verify(cache, times(2)).putServerStatus(any(ServerStatus.class));
-        verify(cache, times(1)).putAllServerStatuses(anyList());
-        verify(cache, times(1)).putStatusesByServerName(DEFAULT_SERVER_NAME, anyList());
+        verify(cache, times(2)).upsertServerStatus(any(ServerStatus.class));
+        verify(serverStatusRepository, never()).findAll();
+        verify(serverStatusRepository, never()).findByServerName(DEFAULT_SERVER_NAME);
     }
 
     @Test
     void testCheckServerStatusesWithCachedStatus() {
 
         List<ServerStatusDto> requests = Arrays.asList(dto1);
-        when(cache.getServerStatusById(anyLong())).thenReturn(status1);
+        when(dto1.getUrl()).thenReturn(URL_1);
+        when(cache.getProbeResult(new ProbeTarget(URL_1, null).getKey())).thenReturn(status1);
 
 
         List<ServerStatus> result = serverStatusService.checkServerStatuses(requests);
@@ -126,18 +149,19 @@ public class ServerStatusServiceTest {
         assertEquals(status1, result.get(0));
         verify(serverRepository, never()).findById(anyLong());
         verify(serverStatusRepository, never()).saveAll(anyList());
-        verify(cache, never()).putServerStatus(any(ServerStatus.class));
+        verify(cache, never()).upsertServerStatus(any(ServerStatus.class));
     }
 
     @Test
     void testCheckServerStatusesNewServerCreated() {
 
+        when(dto1.getUrl()).thenReturn(URL_1);
+        when(changeOnly.shouldPersist(any(ServerStatus.class))).thenReturn(true);
         when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.empty());
         when(serverRepository.save(any(Server.class))).thenReturn(defaultServer);
-        when(cache.getServerStatusById(anyLong())).thenReturn(null);
+        when(cache.getProbeResult(anyString())).thenReturn(null);
+        when(probeEngine.probeAll(anyList())).thenReturn(Arrays.asList(new ServerStatus()));
         when(serverStatusRepository.saveAll(anyList())).thenReturn(Arrays.asList(status1));
-        when(serverStatusRepository.findAll()).thenReturn(Arrays.asList(status1));
-        when(serverStatusRepository.findByServerName(DEFAULT_SERVER_NAME)).thenReturn(Arrays.asList(status1));
 
 
         List<ServerStatus> result = serverStatusService.checkServerStatuses(Arrays.asList(dto1));
@@ -148,7 +172,141 @@ public class ServerStatusServiceTest {
         verify(serverRepository, times(1)).findById(SERVER_ID);
         verify(serverRepository, times(1)).save(any(Server.class));
         verify(serverStatusRepository, times(1)).saveAll(anyList());
-        verify(cache, times(1)).putServerStatus(any(ServerStatus.class));
+        verify(cache, times(1)).upsertServerStatus(any(ServerStatus.class));
+    }
+
+    @Test
+    void testCheckServerStatusesWriteBehind() {
+
+        ServerStatus probed = new ServerStatus();
+        when(dto1.getUrl()).thenReturn(URL_1);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(writeBehind.isEnabled()).thenReturn(true);
+        when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.of(defaultServer));
+        when(cache.getProbeResult(anyString())).thenReturn(null);
+        when(probeEngine.probeAll(anyList())).thenReturn(Arrays.asList(probed));
+
+
+        List<ServerStatus> result = serverStatusService.checkServerStatuses(Arrays.asList(dto1));
+
+
+        assertEquals(1, result.size());
+        assertSame(probed, result.get(0));
+        verify(writeBehind, times(1)).submit(eq(probed), any(Runnable.class), any(Runnable.class));
+        verify(serverStatusRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testNotProbedResultIsReturnedButNotStored() {
+
+        ServerStatus probed = new ServerStatus();
+        probed.setUrl(URL_1);
+        ServerStatus skipped = new ServerStatus();
+        skipped.setUrl(URL_2);
+        skipped.setNotProbed(true);
+        when(dto1.getUrl()).thenReturn(URL_1);
+        when(dto2.getUrl()).thenReturn(URL_2);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.of(defaultServer));
+        when(probeEngine.probeAll(anyList())).thenReturn(Arrays.asList(probed, skipped));
+        when(serverStatusRepository.saveAll(List.of(probed))).thenReturn(List.of(status1));
+
+
+        List<ServerStatus> result = serverStatusService.checkServerStatuses(Arrays.asList(dto1, dto2));
+
+
+        assertEquals(List.of(status1, skipped), result);
+        verify(changeOnly, never()).shouldPersist(skipped);
+        verify(cache, never()).putProbeResult(anyString(), eq(skipped));
+        verify(statusStream, never()).publish(skipped);
+    }
+
+    @Test
+    void testNotProbedMonitoringResultIsIgnored() {
+
+        ServerStatus skipped = new ServerStatus();
+        skipped.setNotProbed(true);
+
+
+        ServerStatus result = serverStatusService.recordMonitoringResult(7L, TARGET, skipped);
+
+
+        assertSame(skipped, result);
+        verifyNoInteractions(serverStatusRepository, timeSeries, changeOnly, statusStream, cache);
+    }
+
+    @Test
+    void testResultPublishedOnlyAfterCommit() {
+
+        ServerStatus probed = new ServerStatus();
+        probed.setUrl(URL_1);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(serverRepository.getReferenceById(7L)).thenReturn(new Server());
+        when(serverStatusRepository.save(probed)).thenReturn(probed);
+        TransactionSynchronizationManager.initSynchronization();
+
+
+        serverStatusService.recordMonitoringResult(7L, TARGET, probed);
+        verify(statusStream, never()).publish(any(ServerStatus.class));
+        verify(changeOnly, never()).stored(any(ServerStatus.class));
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+
+        verify(statusStream, times(1)).publish(probed);
+        verify(changeOnly, times(1)).stored(probed);
+    }
+
+    @Test
+    void testRolledBackResultIsNotPublished() {
+
+        ServerStatus probed = new ServerStatus();
+        probed.setUrl(URL_1);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(serverRepository.getReferenceById(7L)).thenReturn(new Server());
+        when(serverStatusRepository.save(probed)).thenReturn(probed);
+        TransactionSynchronizationManager.initSynchronization();
+
+
+        serverStatusService.recordMonitoringResult(7L, TARGET, probed);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+
+        verify(statusStream, never()).publish(any(ServerStatus.class));
+        verify(changeOnly, times(1)).failed(probed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStatusHistoryAcceptsExactlyMaxRowsInRange() {
+
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = from.plus(Duration.ofDays(1));
+        when(serverStatusRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Collections.nCopies(10_000, historyRow(from.plusSeconds(1))));
+        when(serverStatusRepository.findFirstByUrlAndCheckedAtBeforeOrderByCheckedAtDescIdDesc(URL_1, from))
+                .thenReturn(Optional.of(historyRow(from.minusSeconds(1))));
+
+
+        StatusHistory history = serverStatusService.getStatusHistory(URL_1, from, to);
+
+
+        assertEquals(1, history.getIntervals().size());
+        assertEquals(10_001, history.getIntervals().get(0).getStoredChecks());
+        assertEquals(from, history.getIntervals().get(0).getStart());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStatusHistoryRejectsMoreThanMaxRowsInRange() {
+
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = from.plus(Duration.ofDays(1));
+        when(serverStatusRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Collections.nCopies(10_001, historyRow(from.plusSeconds(1))));
+
+
+        assertThrows(IllegalArgumentException.class, () -> serverStatusService.getStatusHistory(URL_1, from, to));
+        verify(serverStatusRepository, never()).findFirstByUrlAndCheckedAtBeforeOrderByCheckedAtDescIdDesc(URL_1, from);
     }
 
     @Test
@@ -156,7 +314,7 @@ public class ServerStatusServiceTest {
 
         ServerStatus request = mock(ServerStatus.class);
         when(request.getUrl()).thenReturn(URL_1);
-        when(cache.getServerStatusById(anyLong())).thenReturn(status1);
+        when(cache.getProbeResult(anyString())).thenReturn(status1);
 
         ServerStatus result = serverStatusService.checkServerStatus(request);
 
@@ -170,11 +328,10 @@ public class ServerStatusServiceTest {
 
         ServerStatus request = mock(ServerStatus.class);
         when(request.getUrl()).thenReturn(URL_1);
-        when(cache.getServerStatusById(anyLong())).thenReturn(null);
+        when(changeOnly.shouldPersist(any(ServerStatus.class))).thenReturn(true);
+        when(probeEngine.probe(any(ProbeTarget.class))).thenReturn(new ServerStatus());
         when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.of(defaultServer));
         when(serverStatusRepository.save(any(ServerStatus.class))).thenReturn(status1);
-        when(serverStatusRepository.findAll()).thenReturn(Arrays.asList(status1));
-        when(serverStatusRepository.findByServerName(DEFAULT_SERVER_NAME)).thenReturn(Arrays.asList(status1));
 
 
         ServerStatus result = serverStatusService.checkServerStatus(request);
@@ -183,9 +340,53 @@ public class ServerStatusServiceTest {
         assertEquals(status1, result);
         verify(serverRepository, times(1)).findById(SERVER_ID);
         verify(serverStatusRepository, times(1)).save(any(ServerStatus.class));
-        verify(cache, times(1)).putServerStatus(any(ServerStatus.class));
-        verify(cache, times(1)).putAllServerStatuses(anyList());
-        verify(cache, times(1)).putStatusesByServerName(DEFAULT_SERVER_NAME, anyList());
+        verify(cache, times(1)).upsertServerStatus(any(ServerStatus.class));
+        verify(timeSeries, never()).record(any(ServerStatus.class));
+        verify(serverStatusRepository, never()).findAll();
+        verify(serverStatusRepository, never()).findByServerName(DEFAULT_SERVER_NAME);
+    }
+
+    @Test
+    void testRecordMonitoringResultFeedsTimeSeries() {
+
+        ServerStatus probed = new ServerStatus();
+        probed.setUrl(URL_1);
+        Server monitored = new Server();
+        monitored.setId(7L);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(serverRepository.getReferenceById(7L)).thenReturn(monitored);
+        when(serverStatusRepository.save(probed)).thenReturn(probed);
+
+
+        ServerStatus result = serverStatusService.recordMonitoringResult(7L, TARGET, probed);
+
+
+        assertSame(monitored, result.getServer());
+        verify(timeSeries, times(1)).record(probed);
+        verify(cache, times(1)).putProbeResult(TARGET.getKey(), probed);
+        verify(cache, times(1)).upsertServerStatus(probed);
+    }
+
+    @Test
+    void testCheckServerStatusKeysCacheByMethod() {
+
+        ServerStatus request = new ServerStatus();
+        request.setUrl(URL_1);
+        ServerStatus probed = new ServerStatus();
+        when(cache.getProbeResult(new ProbeTarget(URL_1, ProbeMethod.HEAD).getKey())).thenReturn(null);
+        when(changeOnly.shouldPersist(probed)).thenReturn(true);
+        when(probeEngine.probe(new ProbeTarget(URL_1, ProbeMethod.HEAD))).thenReturn(probed);
+        when(serverRepository.findById(SERVER_ID)).thenReturn(Optional.of(defaultServer));
+        when(serverStatusRepository.save(probed)).thenReturn(status1);
+
+
+        ServerStatus result = serverStatusService.checkServerStatus(request, ProbeMethod.HEAD);
+
+
+        assertEquals(status1, result);
+        verify(cache, never()).getProbeResult(new ProbeTarget(URL_1, ProbeMethod.GET).getKey());
+        verify(cache, times(1)).putProbeResult(new ProbeTarget(URL_1, ProbeMethod.HEAD).getKey(), status1);
+        verify(transactionManager, times(1)).commit(any());
     }
 
     @Test
@@ -193,12 +394,8 @@ public class ServerStatusServiceTest {
 
         ServerStatus serverStatus = mock(ServerStatus.class);
         when(serverStatus.getId()).thenReturn(STATUS_ID_1);
-        when(serverStatus.getServer()).thenReturn(defaultServer);
-        when(defaultServer.getName()).thenReturn(DEFAULT_SERVER_NAME);
         when(cache.getServerStatusById(STATUS_ID_1)).thenReturn(null);
         when(serverStatusRepository.save(serverStatus)).thenReturn(status1);
-        when(serverStatusRepository.findAll()).thenReturn(Arrays.asList(status1));
-        when(serverStatusRepository.findByServerName(DEFAULT_SERVER_NAME)).thenReturn(Arrays.asList(status1));
 
 
         ServerStatus result = serverStatusService.createServerStatus(serverStatus);
@@ -206,9 +403,9 @@ public class ServerStatusServiceTest {
 
         assertEquals(status1, result);
         verify(serverStatusRepository, times(1)).save(serverStatus);
-        verify(cache, times(1)).putServerStatus(status1);
-        verify(cache, times(1)).putAllServerStatuses(anyList());
-        verify(cache, times(1)).putStatusesByServerName(DEFAULT_SERVER_NAME, anyList());
+        verify(cache, times(1)).upsertServerStatus(status1);
+        verify(serverStatusRepository, never()).findAll();
+        verify(serverStatusRepository, never()).findByServerName(DEFAULT_SERVER_NAME);
     }
 
     @Test
@@ -224,7 +421,7 @@ public class ServerStatusServiceTest {
 
         assertEquals(status1, result);
         verify(serverStatusRepository, never()).save(any(ServerStatus.class));
-        verify(cache, never()).putServerStatus(any(ServerStatus.class));
+        verify(cache, never()).upsertServerStatus(any(ServerStatus.class));
     }
 
     @Test
@@ -253,7 +450,41 @@ public class ServerStatusServiceTest {
 
         assertEquals(2, result.size());
         verify(serverStatusRepository, times(1)).findAll();
-        verify(cache, times(1)).putAllServerStatuses(anyList());
+        verify(cache, times(1)).putAllServerStatuses(anyList(), anyLong());
+    }
+
+    @Test
+    void testUnchangedStatusListCountsRequestWithoutReading() {
+
+        when(cache.getAllServerStatusesTag()).thenReturn("v7");
+
+
+        TaggedList<ServerStatus> result = serverStatusService.getAllServerStatuses("v7"::equals);
+
+
+        assertTrue(result.isNotModified());
+        assertEquals("v7", result.getTag());
+        verify(counterService, times(1)).increment();
+        verify(cache, never()).getAllServerStatuses();
+        verify(serverStatusRepository, never()).findAll();
+    }
+
+    @Test
+    void testChangedStatusListIsServedWithItsTag() {
+
+        List<ServerStatus> cached = Arrays.asList(status1, status2);
+        when(cache.getAllServerStatusesTag()).thenReturn("v8");
+        when(cache.getAllServerStatuses()).thenReturn(cached);
+        when(cache.tagOfServerStatuses(cached)).thenReturn("v8");
+
+
+        TaggedList<ServerStatus> result = serverStatusService.getAllServerStatuses("v7"::equals);
+
+
+        assertFalse(result.isNotModified());
+        assertEquals(cached, result.getItems());
+        assertEquals("v8", result.getTag());
+        verify(counterService, times(1)).increment();
     }
 
     @Test
@@ -289,12 +520,8 @@ public class ServerStatusServiceTest {
         when(updatedStatus.getUrl()).thenReturn(URL_1);
         when(updatedStatus.isAvailable()).thenReturn(true);
         when(updatedStatus.getMessage()).thenReturn(MESSAGE_AVAILABLE);
-        when(cache.getServerStatusById(STATUS_ID_1)).thenReturn(null);
         when(serverStatusRepository.findById(STATUS_ID_1)).thenReturn(Optional.of(status1));
         when(serverStatusRepository.save(status1)).thenReturn(status1);
-        when(serverStatusRepository.findAll()).thenReturn(Arrays.asList(status1));
-        when(serverStatusRepository.findByServerName(DEFAULT_SERVER_NAME)).thenReturn(Arrays.asList(status1));
-        when(status1.getServer()).thenReturn(defaultServer);
 
 
         ServerStatus result = serverStatusService.updateServerStatus(STATUS_ID_1, updatedStatus);
@@ -305,16 +532,15 @@ public class ServerStatusServiceTest {
         verify(status1, times(1)).setIsAvailable(true);
         verify(status1, times(1)).setMessage(MESSAGE_AVAILABLE);
         verify(serverStatusRepository, times(1)).save(status1);
-        verify(cache, times(1)).putServerStatus(status1);
-        verify(cache, times(1)).putAllServerStatuses(anyList());
-        verify(cache, times(1)).putStatusesByServerName(DEFAULT_SERVER_NAME, anyList());
+        verify(cache, times(1)).upsertServerStatus(status1);
+        verify(serverStatusRepository, never()).findAll();
+        verify(serverStatusRepository, never()).findByServerName(DEFAULT_SERVER_NAME);
     }
 
     @Test
     void testUpdateServerStatusNotFound() {
 
         ServerStatus updatedStatus = mock(ServerStatus.class);
-        when(cache.getServerStatusById(STATUS_ID_1)).thenReturn(null);
         when(serverStatusRepository.findById(STATUS_ID_1)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> serverStatusService.updateServerStatus(STATUS_ID_1, updatedStatus));
@@ -332,7 +558,7 @@ public class ServerStatusServiceTest {
 
 
         verify(serverStatusRepository, times(1)).deleteById(STATUS_ID_1);
-        verify(cache, times(1)).clearServerStatusCache();
+        verify(cache, times(1)).removeServerStatus(STATUS_ID_1);
     }
 
     @Test
@@ -349,7 +575,7 @@ public class ServerStatusServiceTest {
         assertEquals(status1, result.get(0));
         assertEquals(status2, result.get(1));
         verify(serverStatusRepository, times(1)).findByServerName(DEFAULT_SERVER_NAME);
-        verify(cache, times(1)).putStatusesByServerName(DEFAULT_SERVER_NAME, anyList());
+        verify(cache, times(1)).putStatusesByServerName(eq(DEFAULT_SERVER_NAME), anyList(), anyLong());
     }
 
     @Test
@@ -364,4 +590,19 @@ public class ServerStatusServiceTest {
         assertEquals(2, result.size());
         verify(serverStatusRepository, never()).findByServerName(DEFAULT_SERVER_NAME);
     }
-}
\ No newline at end of file
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static ServerStatus historyRow(Instant checkedAt) {
+        ServerStatus row = new ServerStatus();
+        row.setUrl(URL_1);
+        row.setIsAvailable(true);
+        row.setMessage(MESSAGE_AVAILABLE);
+        row.setCheckedAt(checkedAt);
+        return row;
+    }
+}
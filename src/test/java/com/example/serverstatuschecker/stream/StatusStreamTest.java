@@ -0,0 +1,113 @@
+package com.example.serverstatuschecker.stream;
+
+import com.example.serverstatuschecker.config.StreamProperties;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatusStreamTest {
+
+    private StreamProperties properties;
+    private StatusStream stream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StreamProperties();
+        properties.setSenderThreads(1);
+        properties.setSendTimeout(Duration.ofMillis(100));
+        properties.setHeartbeat(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void testStuckSubscriberIsEvictedAndOthersKeepReceiving() throws InterruptedException {
+
+        stream = new StatusStream(properties);
+        StuckEmitter stuck = new StuckEmitter();
+        CountingEmitter healthy = new CountingEmitter(2);
+        stream.register(stuck, Set.of());
+        stream.register(healthy, Set.of());
+
+
+        stream.publish(status("http://a.example.com/"));
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+        stream.publish(status("http://b.example.com/"));
+
+
+        assertTrue(healthy.received.await(5, TimeUnit.SECONDS), "healthy subscriber starved");
+        assertTrue(stuck.interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    void testSubscriberLosingWholeBufferIsEvicted() throws InterruptedException {
+
+        properties.setBufferSize(2);
+        properties.setSendTimeout(Duration.ofMinutes(1));
+        stream = new StatusStream(properties);
+        StuckEmitter stuck = new StuckEmitter();
+        stream.register(stuck, Set.of());
+        stream.publish(status("http://example.com/0"));
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+
+
+        for (int i = 1; i <= 4; i++) {
+            stream.publish(status("http://example.com/" + i));
+        }
+
+
+        assertEquals(0, stream.getSubscriberCount());
+        assertTrue(stuck.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    private static ServerStatus status(String url) {
+        ServerStatus status = new ServerStatus();
+        status.setUrl(url);
+        status.setIsAvailable(true);
+        return status;
+    }
+
+    private static final class StuckEmitter extends SseEmitter {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new InterruptedIOException("interrupted");
+            }
+        }
+    }
+
+    private static final class CountingEmitter extends SseEmitter {
+        private final CountDownLatch received;
+
+        private CountingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.serverstatuschecker.stream;
+
+import com.example.serverstatuschecker.dto.StatusTransition;
+import com.example.serverstatuschecker.model.ServerStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransitionDetectorTest {
+
+    private static final String URL = "http://example.com/";
+
+    private final TransitionDetector detector = new TransitionDetector(
+            List.of(Duration.ofMillis(250), Duration.ofSeconds(1)), 100);
+
+    @Test
+    void testOnlyChangesProduceTransitions() {
+
+        StatusTransition first = detector.detect(status(true, 100));
+
+
+        StatusTransition unchanged = detector.detect(status(true, 120));
+        StatusTransition slower = detector.detect(status(true, 400));
+        StatusTransition down = detector.detect(status(false, 0));
+
+
+        assertEquals(StatusTransition.Kind.AVAILABILITY, first.getKind());
+        assertNull(first.getPreviousAvailable());
+        assertNull(unchanged);
+        assertEquals(StatusTransition.Kind.LATENCY, slower.getKind());
+        assertEquals("0-250ms", slower.getPreviousLatencyBand());
+        assertEquals("250ms-1s", slower.getLatencyBand());
+        assertEquals(StatusTransition.Kind.AVAILABILITY, down.getKind());
+        assertEquals(Boolean.TRUE, down.getPreviousAvailable());
+        assertTrue(down.getSequence() > slower.getSequence());
+    }
+
+    private static ServerStatus status(boolean available, long latencyMs) {
+        ServerStatus status = new ServerStatus();
+        status.setUrl(URL);
+        status.setIsAvailable(available);
+        status.setLatencyNanos(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+        return status;
+    }
+}
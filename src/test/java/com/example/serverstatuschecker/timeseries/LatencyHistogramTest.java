@@ -0,0 +1,54 @@
+package com.example.serverstatuschecker.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 16;
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+
+        assertEquals(10_000, histogram.getTotalCount());
+        assertWithinPrecision(5_000, histogram.valueAtPercentile(50));
+        assertWithinPrecision(9_900, histogram.valueAtPercentile(99));
+        assertWithinPrecision(10_000, histogram.valueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().valueAtPercentile(99));
+    }
+
+    @Test
+    void testMergeAndEncodingRoundTrip() {
+
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        first.record(250_000);
+        second.record(10);
+        second.record(4_900_000);
+
+
+        first.merge(second);
+        LatencyHistogram decoded = LatencyHistogram.fromBytes(first.toBytes());
+
+
+        assertEquals(4, decoded.getTotalCount());
+        assertEquals(10, decoded.valueAtPercentile(50));
+        assertWithinPrecision(250_000, decoded.valueAtPercentile(75));
+        assertWithinPrecision(4_900_000, decoded.valueAtPercentile(100));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * (1 + MAX_RELATIVE_ERROR),
+                "expected about " + expected + " but was " + actual);
+    }
+}
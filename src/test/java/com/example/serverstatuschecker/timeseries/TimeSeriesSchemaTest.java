@@ -0,0 +1,113 @@
+package com.example.serverstatuschecker.timeseries;
+
+import com.example.serverstatuschecker.config.TimeSeriesProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimeSeriesSchemaTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TimeSeriesSchema schema;
+
+    @BeforeEach
+    void setUp() {
+        TimeSeriesProperties properties = new TimeSeriesProperties();
+        properties.setPartitionsAhead(0);
+        schema = new TimeSeriesSchema(jdbcTemplate, properties);
+    }
+
+    @Test
+    void testPostgresGetsDailyPartitions() {
+
+        databaseProduct("PostgreSQL");
+        assertTrue(schema.ensureInitialized());
+
+
+        schema.ensurePartitions(LocalDate.of(2026, 1, 30), 2);
+
+
+        List<String> partitions = executed().stream().filter(sql -> sql.contains("FOR VALUES")).toList();
+        assertEquals(List.of(
+                partitionDdl("20260130", "2026-01-30", "2026-01-31"),
+                partitionDdl("20260131", "2026-01-31", "2026-02-01"),
+                partitionDdl("20260201", "2026-02-01", "2026-02-02")), partitions.subList(1, 4));
+        assertTrue(executed().stream().anyMatch(sql -> sql.endsWith("PARTITION BY RANGE (ts)")));
+        assertTrue(executed().stream().anyMatch(sql -> sql.contains("probe_samples_default PARTITION OF")));
+    }
+
+    @Test
+    void testDropsPartitionsEndingAtOrBeforeCutoff() {
+
+        databaseProduct("PostgreSQL");
+        schema.ensureInitialized();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+                "probe_samples_20260101", "probe_samples_20260102", "probe_samples_20260103",
+                "probe_samples_default"));
+        Instant cutoff = Instant.parse("2026-01-03T00:00:00Z");
+
+
+        schema.dropSamplesBefore(cutoff);
+
+
+        List<String> drops = executed().stream().filter(sql -> sql.startsWith("DROP TABLE")).toList();
+        assertEquals(List.of("DROP TABLE IF EXISTS probe_samples_20260101",
+                "DROP TABLE IF EXISTS probe_samples_20260102"), drops);
+        verify(jdbcTemplate).update("DELETE FROM probe_samples_default WHERE ts < ?", cutoff.atOffset(ZoneOffset.UTC));
+    }
+
+    @Test
+    void testOtherDatabasesDeleteRowsInstead() {
+
+        databaseProduct("H2");
+        schema.ensureInitialized();
+        Instant cutoff = Instant.parse("2026-01-03T00:00:00Z");
+
+
+        schema.ensurePartitions(LocalDate.of(2026, 1, 30), 2);
+        schema.dropSamplesBefore(cutoff);
+
+
+        assertTrue(executed().stream().noneMatch(sql -> sql.contains("PARTITION")));
+        assertTrue(executed().stream().anyMatch(sql -> sql.contains("latency_hist VARBINARY")));
+        verify(jdbcTemplate).update("DELETE FROM probe_samples WHERE ts < ?", cutoff.atOffset(ZoneOffset.UTC));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void databaseProduct(String name) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(name);
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+
+    private static String partitionDdl(String suffix, String from, String to) {
+        return "CREATE TABLE IF NOT EXISTS probe_samples_" + suffix + " PARTITION OF probe_samples "
+                + "FOR VALUES FROM ('" + OffsetDateTime.parse(from + "T00:00Z") + "') TO ('"
+                + OffsetDateTime.parse(to + "T00:00Z") + "')";
+    }
+}